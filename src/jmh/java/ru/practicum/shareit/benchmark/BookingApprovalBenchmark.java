@@ -0,0 +1,83 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Владелец парка вещей подтверждает approvals ожидающих бронирований:
+ * по одному вызову updateBookingStatus на бронирование или одним вызовом updateBookingStatuses.
+ * Перед каждой итерацией бронирования снова переводятся в WAITING.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BookingApprovalBenchmark {
+    private static final long FLEET_ID_BASE = 10_000_000;
+
+    @Param("1000")
+    public int approvals;
+
+    private BookingService bookingService;
+    private JdbcTemplate jdbcTemplate;
+    private long ownerId;
+    private List<Long> bookingIds;
+    private List<BookingDecisionDto> decisions;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededDatabase database) {
+        bookingService = database.getBean(BookingService.class);
+        jdbcTemplate = database.getBean(JdbcTemplate.class);
+        ownerId = FLEET_ID_BASE;
+        long bookerId = FLEET_ID_BASE + 1;
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (?, 'Владелец парка', 'fleet@mail.ru'), "
+                + "(?, 'Арендатор парка', 'fleet-booker@mail.ru')", ownerId, bookerId);
+        jdbcTemplate.update("INSERT INTO items (id, name, description, available, owner_id) "
+                + "SELECT ? + X, 'Самокат ' || X, 'Электросамокат', TRUE, ? FROM SYSTEM_RANGE(1, ?)",
+                FLEET_ID_BASE, ownerId, approvals);
+        jdbcTemplate.update("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status, phase) "
+                + "SELECT ? + X, DATEADD('DAY', 1, LOCALTIMESTAMP), DATEADD('DAY', 2, LOCALTIMESTAMP), ? + X, ?, "
+                + "'WAITING', 'FUTURE' FROM SYSTEM_RANGE(1, ?)", FLEET_ID_BASE, FLEET_ID_BASE, bookerId, approvals);
+        bookingIds = LongStream.rangeClosed(FLEET_ID_BASE + 1, FLEET_ID_BASE + approvals).boxed().toList();
+        decisions = bookingIds.stream()
+                .map(bookingId -> BookingDecisionDto.builder().bookingId(bookingId).approved(true).build())
+                .toList();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStatuses() {
+        jdbcTemplate.update("UPDATE bookings SET status = 'WAITING' WHERE id > ? AND id <= ?",
+                FLEET_ID_BASE, FLEET_ID_BASE + approvals);
+    }
+
+    @Benchmark
+    public int approveOneByOne() {
+        bookingIds.forEach(bookingId -> bookingService.updateBookingStatus(bookingId, true, ownerId));
+        return bookingIds.size();
+    }
+
+    @Benchmark
+    public List<BookingDecisionResultDto> approveBatch() {
+        return bookingService.updateBookingStatuses(decisions, ownerId);
+    }
+}
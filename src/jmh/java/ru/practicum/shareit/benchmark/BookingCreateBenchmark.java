@@ -0,0 +1,100 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exceptions.ValidationException;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Задержка createBooking для вещи с bookingsPerItem подтверждёнными бронированиями через час:
+ * бронирование свободного часа после них (bookFreeSlot) и отказ на занятый час (rejectOverlap).
+ * Перед каждой итерацией созданные бронирования удаляются.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BookingCreateBenchmark {
+    private static final long HOT_ID_BASE = 20_000_000;
+
+    @Param({"10000", "100000"})
+    public int bookingsPerItem;
+
+    private BookingService bookingService;
+    private JdbcTemplate jdbcTemplate;
+    private long itemId;
+    private long bookerId;
+    private LocalDateTime base;
+    private int nextFreeSlot;
+    private int nextBusySlot;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededDatabase database) {
+        bookingService = database.getBean(BookingService.class);
+        jdbcTemplate = database.getBean(JdbcTemplate.class);
+        long ownerId = HOT_ID_BASE;
+        bookerId = HOT_ID_BASE + 1;
+        itemId = HOT_ID_BASE;
+        base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (?, 'Владелец', 'hot-owner@mail.ru'), "
+                + "(?, 'Арендатор', 'hot-booker@mail.ru')", ownerId, bookerId);
+        jdbcTemplate.update("INSERT INTO items (id, name, description, available, owner_id) "
+                + "VALUES (?, 'Перфоратор', 'Очень популярная вещь', TRUE, ?)", itemId, ownerId);
+        jdbcTemplate.update("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status, phase) "
+                + "SELECT ? + X, DATEADD('HOUR', 2 * X + 1, ?), DATEADD('HOUR', 2 * X + 2, ?), ?, ?, "
+                + "'APPROVED', 'FUTURE' FROM SYSTEM_RANGE(0, ?)",
+                HOT_ID_BASE, Timestamp.valueOf(base), Timestamp.valueOf(base), itemId, bookerId, bookingsPerItem - 1);
+    }
+
+    @Setup(Level.Iteration)
+    public void removeCreatedBookings() {
+        jdbcTemplate.update("DELETE FROM bookings WHERE item_id = ? AND (id < ? OR id >= ?)",
+                itemId, HOT_ID_BASE, HOT_ID_BASE + bookingsPerItem);
+        nextFreeSlot = 0;
+        nextBusySlot = 0;
+    }
+
+    @Benchmark
+    public BookingDto bookFreeSlot() {
+        return bookingService.createBooking(request(base.plusHours(2L * bookingsPerItem + nextFreeSlot++)), bookerId);
+    }
+
+    @Benchmark
+    public ValidationException rejectOverlap() {
+        int slot = nextBusySlot++ % bookingsPerItem;
+        try {
+            bookingService.createBooking(request(base.plusHours(2L * slot + 1).plusMinutes(30)), bookerId);
+            throw new IllegalStateException("Пересекающееся бронирование создано.");
+        } catch (ValidationException e) {
+            return e;
+        }
+    }
+
+    private CreateBookingDto request(LocalDateTime start) {
+        return CreateBookingDto.builder()
+                .itemId(itemId)
+                .start(start)
+                .end(start.plusHours(1))
+                .build();
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.search.ItemSort;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ItemSearchBenchmark {
+    @Param({"дрель", "палатка туристическая"})
+    public String text;
+
+    private ItemService itemService;
+    private LocalDate windowFrom;
+
+    @Setup
+    public void setUp(SeededDatabase database) {
+        itemService = database.getBean(ItemService.class);
+        windowFrom = LocalDate.now().plusDays(7);
+    }
+
+    @Benchmark
+    public List<CreateItemDto> getAvailableItemsByText() {
+        return itemService.getAvailableItemsByText(text, null, null, ItemSort.RELEVANCE);
+    }
+
+    @Benchmark
+    public List<CreateItemDto> getAvailableItemsByTextInWindow() {
+        return itemService.getAvailableItemsByText(text, windowFrom, windowFrom.plusDays(6), ItemSort.RELEVANCE);
+    }
+}
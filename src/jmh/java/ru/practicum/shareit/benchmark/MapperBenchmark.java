@@ -0,0 +1,76 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPhase;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.CommentDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private Booking booking;
+    private Item item;
+    private BookingDto lastBooking;
+    private BookingDto nextBooking;
+    private List<CommentDto> comments;
+
+    @Setup
+    public void setUp() {
+        User owner = new User(1L, "Владелец", "owner@mail.ru", 0L);
+        User booker = new User(2L, "Арендатор", "booker@mail.ru", 0L);
+        item = Item.builder()
+                .id(1L)
+                .name("Дрель")
+                .description("Дрель ударная")
+                .available(true)
+                .owner(owner)
+                .build();
+        LocalDateTime now = LocalDateTime.now();
+        booking = new Booking(1L, now.minusDays(2), now.minusDays(1), item, booker, BookingStatus.APPROVED,
+                BookingPhase.PAST, 0L);
+        lastBooking = BookingMapper.toBookingDto(booking);
+        nextBooking = BookingMapper.toBookingDto(
+                new Booking(2L, now.plusDays(1), now.plusDays(2), item, booker, BookingStatus.APPROVED,
+                        BookingPhase.FUTURE, 0L));
+        comments = LongStream.rangeClosed(1, 5)
+                .mapToObj(id -> new Comment(id, "Отличная дрель", item, booker, now, 0L))
+                .map(ItemMapper::toCommentDto)
+                .toList();
+    }
+
+    @Benchmark
+    public BookingDto toBookingDto() {
+        return BookingMapper.toBookingDto(booking);
+    }
+
+    @Benchmark
+    public ItemWithBookingDto toItemWithBookingDto() {
+        return ItemMapper.toItemWithBookingDto(item, lastBooking, nextBooking, comments.size(), comments);
+    }
+}
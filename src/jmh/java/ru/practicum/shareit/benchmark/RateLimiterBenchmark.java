@@ -0,0 +1,74 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.ratelimit.AdaptiveConcurrencyLimiter;
+import ru.practicum.shareit.ratelimit.UserRateLimiter;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость проверки лимитов на запрос: один пользователь (конкуренция за одну корзину)
+ * и много пользователей (поиск корзины в карте). Лимиты заведомо не исчерпываются,
+ * чтобы измерять путь разрешённого запроса.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimiterBenchmark {
+    @Param("100000")
+    private int users;
+
+    private UserRateLimiter rateLimiter;
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @Setup
+    public void setUp() {
+        rateLimiter = new UserRateLimiter(Integer.MAX_VALUE / 2, 1e9, System::nanoTime);
+        for (long userId = 0; userId < users; userId++) {
+            rateLimiter.tryAcquire(userId);
+        }
+        concurrencyLimiter = new AdaptiveConcurrencyLimiter(1000, 1000, 1000, Long.MAX_VALUE, 0.9);
+    }
+
+    @Benchmark
+    public long singleUser() {
+        return rateLimiter.tryAcquire(1L);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long singleUserContended() {
+        return rateLimiter.tryAcquire(1L);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long manyUsers() {
+        return rateLimiter.tryAcquire(ThreadLocalRandom.current().nextLong(users));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean admission() {
+        boolean admitted = concurrencyLimiter.tryAcquire();
+        if (admitted) {
+            concurrencyLimiter.release(0, 0);
+        }
+        return admitted;
+    }
+}
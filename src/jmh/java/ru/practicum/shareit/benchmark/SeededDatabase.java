@@ -0,0 +1,88 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.phase.BookingPhaseSweeper;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+/**
+ * Контекст приложения поверх H2 в памяти, заполненной данными объёмом users/items/bookings.
+ * У каждого пользователя items / users вещей, у каждой вещи bookings / items бронирований,
+ * даты бронирований равномерно разбросаны на год назад и год вперёд.
+ */
+@State(Scope.Benchmark)
+public class SeededDatabase {
+    public static final long OWNER_ID = 1L;
+
+    @Param("10000")
+    public int users;
+
+    @Param("100000")
+    public int items;
+
+    @Param("1000000")
+    public int bookings;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driverClassName=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        seed(context.getBean(JdbcTemplate.class));
+        context.getBean(ItemSearchIndex.class).rebuild();
+        context.getBean(BookingPhaseSweeper.class).warmUp();
+        context.getBean(ItemAvailabilityIndex.class).warmUp();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    private void seed(JdbcTemplate jdbc) {
+        jdbc.update("INSERT INTO users (id, name, email) "
+                + "SELECT X, 'Пользователь ' || X, 'user' || X || '@mail.ru' FROM SYSTEM_RANGE(1, ?)", users);
+        jdbc.update("INSERT INTO items (id, name, description, available, owner_id) "
+                + "SELECT X, "
+                + "CASE MOD(X, 5) WHEN 0 THEN 'Дрель ударная' WHEN 1 THEN 'Отвёртка аккумуляторная' "
+                + "WHEN 2 THEN 'Лестница стремянка' WHEN 3 THEN 'Палатка туристическая' ELSE 'Велосипед горный' END "
+                + "|| ' ' || X, "
+                + "'Вещь номер ' || X || ' в хорошем состоянии', "
+                + "MOD(X, 7) <> 0, MOD(X, ?) + 1 FROM SYSTEM_RANGE(1, ?)", users, items);
+        jdbc.update("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status, phase) "
+                + "SELECT X, "
+                + "DATEADD('DAY', MOD(X, 730) - 365, LOCALTIMESTAMP), "
+                + "DATEADD('DAY', MOD(X, 730) - 363, LOCALTIMESTAMP), "
+                + "MOD(X, ?) + 1, MOD(X * 7, ?) + 1, "
+                + "CASE MOD(X, 10) WHEN 0 THEN 'WAITING' WHEN 1 THEN 'REJECTED' ELSE 'APPROVED' END, 'FUTURE' "
+                + "FROM SYSTEM_RANGE(1, ?)", items, users, bookings);
+        jdbc.execute("ALTER TABLE users ALTER COLUMN id RESTART WITH " + (users + 1));
+        jdbc.execute("ALTER SEQUENCE items_seq RESTART WITH " + (items + 1));
+        jdbc.execute("ALTER TABLE bookings ALTER COLUMN id RESTART WITH " + (bookings + 1));
+    }
+}
@@ -0,0 +1,125 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.user.dto.CreateUserDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Сериализация списка бронирований в JSON, CBOR и Smile, вложенной и нормализованной формы.
+ * Размер ответа выводится рядом со временем как вспомогательный счётчик payload.bytes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+    private static final int ITEMS = 200;
+    private static final int BOOKERS = 50;
+
+    @Param("10000")
+    private int bookings;
+
+    private ObjectMapper json;
+    private ObjectMapper cbor;
+    private ObjectMapper smile;
+    private List<BookingDto> nested;
+
+    @Setup
+    public void setUp() {
+        json = Jackson2ObjectMapperBuilder.json().build();
+        cbor = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+        smile = Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+        LocalDateTime now = LocalDateTime.now();
+        nested = IntStream.range(0, bookings)
+                .mapToObj(i -> BookingDto.builder()
+                        .id((long) i + 1)
+                        .start(now.plusDays(i % 60))
+                        .end(now.plusDays(i % 60 + 1))
+                        .item(new CreateItemDto((long) i % ITEMS + 1, "Дрель " + i % ITEMS,
+                                "Дрель ударная, комплект бит", true, null))
+                        .booker(new CreateUserDto((long) i % BOOKERS + 1, "Арендатор " + i % BOOKERS,
+                                "booker" + i % BOOKERS + "@mail.ru"))
+                        .status(BookingStatus.values()[i % BookingStatus.values().length])
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Размер ответа в байтах. JMH суммирует EVENTS-счётчики по итерациям измерения, поэтому
+     * итерация записывает свою долю размера, и в итоговой строке остаётся размер одного ответа.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Payload {
+        public double bytes;
+        private double share;
+
+        @Setup(Level.Iteration)
+        public void reset(BenchmarkParams params) {
+            share = 1.0 / params.getMeasurement().getCount();
+            bytes = 0;
+        }
+
+        byte[] record(byte[] payload) {
+            bytes = payload.length * share;
+            return payload;
+        }
+    }
+
+    @Benchmark
+    public byte[] jsonNested(Payload payload) throws Exception {
+        return payload.record(json.writeValueAsBytes(nested));
+    }
+
+    @Benchmark
+    public byte[] jsonNormalized(Payload payload) throws Exception {
+        return payload.record(json.writeValueAsBytes(BookingMapper.toNormalizedBookings(nested)));
+    }
+
+    @Benchmark
+    public byte[] cborNested(Payload payload) throws Exception {
+        return payload.record(cbor.writeValueAsBytes(nested));
+    }
+
+    @Benchmark
+    public byte[] cborNormalized(Payload payload) throws Exception {
+        return payload.record(cbor.writeValueAsBytes(BookingMapper.toNormalizedBookings(nested)));
+    }
+
+    @Benchmark
+    public byte[] smileNested(Payload payload) throws Exception {
+        return payload.record(smile.writeValueAsBytes(nested));
+    }
+
+    @Benchmark
+    public byte[] smileNormalized(Payload payload) throws Exception {
+        return payload.record(smile.writeValueAsBytes(BookingMapper.toNormalizedBookings(nested)));
+    }
+}
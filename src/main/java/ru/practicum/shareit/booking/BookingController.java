@@ -1,14 +1,34 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.dto.NormalizedBookingsDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.etag.EntityTags;
+import ru.practicum.shareit.streaming.JsonStreamWriter;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.ratelimit.LongRunning;
+import ru.practicum.shareit.ratelimit.RateLimited;
 
 import java.util.List;
+import java.util.Map;
 
 
 @RestController
@@ -17,9 +37,16 @@ import java.util.List;
 @Validated
 public class BookingController {
     private final BookingService bookingService;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
     private static final String USER_ID = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR = "X-Next-Cursor";
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final String NORMALIZED = "normalized";
 
     @PostMapping
+    @RateLimited("create-booking")
     public BookingDto createBooking(@RequestBody CreateBookingDto bookingDto,
                                     @RequestHeader(USER_ID) Long userId) {
         return bookingService.createBooking(bookingDto, userId);
@@ -32,21 +59,112 @@ public class BookingController {
         return bookingService.updateBookingStatus(bookingId, approved, ownerId);
     }
 
+    @PatchMapping("/batch")
+    @LongRunning
+    public List<BookingDecisionResultDto> updateBookingStatuses(@RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                                                List<@Valid BookingDecisionDto> decisions,
+                                                                @RequestHeader(USER_ID) Long ownerId) {
+        return bookingService.updateBookingStatuses(decisions, ownerId);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getBookingById(@PathVariable Long bookingId,
-                                  @RequestHeader(USER_ID) Long userId) {
+                                  @RequestHeader(USER_ID) Long userId,
+                                  WebRequest request) {
+        if (request.checkNotModified(EntityTags.ofRepresentation(request,
+                bookingService.getBookingETag(bookingId, userId)))) {
+            return null;
+        }
         return bookingService.getBookingById(bookingId, userId);
     }
 
     @GetMapping
-    public List<BookingDto> getUserBookings(@RequestHeader(USER_ID) Long userId,
-                                         @RequestParam(defaultValue = "ALL") BookingState state) {
-        return bookingService.getUserBookings(userId, state);
+    public ResponseEntity<List<BookingDto>> getUserBookings(@RequestHeader(USER_ID) Long userId,
+                                                            @RequestParam(defaultValue = "ALL") BookingState state,
+                                                            @RequestParam(required = false) @PositiveOrZero Integer from,
+                                                            @RequestParam(required = false) @Positive Integer size,
+                                                            @RequestParam(required = false) String cursor) {
+        return toResponse(bookingService.getUserBookings(userId, state, from, size, cursor));
+    }
+
+    @GetMapping(params = "shape=normalized")
+    public ResponseEntity<NormalizedBookingsDto> getNormalizedUserBookings(
+            @RequestHeader(USER_ID) Long userId,
+            @RequestParam(defaultValue = "ALL") BookingState state,
+            @RequestParam(required = false) @PositiveOrZero Integer from,
+            @RequestParam(required = false) @Positive Integer size,
+            @RequestParam(required = false) String cursor) {
+        return toNormalizedResponse(bookingService.getUserBookings(userId, state, from, size, cursor));
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getOwnerBookings(@RequestHeader(USER_ID) Long ownerId,
-                                          @RequestParam(defaultValue = "ALL") BookingState state) {
-        return bookingService.getOwnerBookings(ownerId, state);
+    public ResponseEntity<List<BookingDto>> getOwnerBookings(@RequestHeader(USER_ID) Long ownerId,
+                                                             @RequestParam(defaultValue = "ALL") BookingState state,
+                                                             @RequestParam(required = false) @PositiveOrZero Integer from,
+                                                             @RequestParam(required = false) @Positive Integer size,
+                                                             @RequestParam(required = false) String cursor,
+                                                             WebRequest request) {
+        if (request.checkNotModified(EntityTags.ofRepresentation(request,
+                bookingService.getOwnerBookingsETag(ownerId, state, from, size, cursor)))) {
+            return null;
+        }
+        return toResponse(bookingService.getOwnerBookings(ownerId, state, from, size, cursor));
+    }
+
+    @GetMapping(path = "/owner", params = "shape=normalized")
+    public ResponseEntity<NormalizedBookingsDto> getNormalizedOwnerBookings(
+            @RequestHeader(USER_ID) Long ownerId,
+            @RequestParam(defaultValue = "ALL") BookingState state,
+            @RequestParam(required = false) @PositiveOrZero Integer from,
+            @RequestParam(required = false) @Positive Integer size,
+            @RequestParam(required = false) String cursor,
+            WebRequest request) {
+        String etag = bookingService.getOwnerBookingsETag(ownerId, state, from, size, cursor);
+        if (request.checkNotModified(EntityTags.ofRepresentation(request, etag, NORMALIZED))) {
+            return null;
+        }
+        return toNormalizedResponse(bookingService.getOwnerBookings(ownerId, state, from, size, cursor));
+    }
+
+    @GetMapping("/counts")
+    public Map<BookingState, Long> getUserBookingCounts(@RequestHeader(USER_ID) Long userId) {
+        return bookingService.getUserBookingCounts(userId);
+    }
+
+    @GetMapping("/owner/counts")
+    public Map<BookingState, Long> getOwnerBookingCounts(@RequestHeader(USER_ID) Long ownerId) {
+        return bookingService.getOwnerBookingCounts(ownerId);
+    }
+
+    @GetMapping(path = "/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamUserBookings(@RequestHeader(USER_ID) Long userId,
+                                                                    @RequestParam(defaultValue = "ALL") BookingState state) {
+        userService.getUserById(userId);
+        return JsonStreamWriter.ndjson(objectMapper,
+                writer -> bookingService.streamUserBookings(userId, state, writer::writeChunk));
+    }
+
+    @GetMapping(path = "/owner/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamOwnerBookings(@RequestHeader(USER_ID) Long ownerId,
+                                                                     @RequestParam(defaultValue = "ALL") BookingState state) {
+        userService.getUserById(ownerId);
+        return JsonStreamWriter.ndjson(objectMapper,
+                writer -> bookingService.streamOwnerBookings(ownerId, state, writer::writeChunk));
+    }
+
+    private ResponseEntity<List<BookingDto>> toResponse(BookingPageDto page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR, page.getNextCursor());
+        }
+        return response.body(page.getBookings());
+    }
+
+    private ResponseEntity<NormalizedBookingsDto> toNormalizedResponse(BookingPageDto page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR, page.getNextCursor());
+        }
+        return response.body(BookingMapper.toNormalizedBookings(page.getBookings()));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.user.dto.CreateUserDto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Список бронирований со ссылками на вещи и пользователей: каждая вещь и каждый пользователь
+ * передаются один раз в items и users, а не в каждом бронировании.
+ */
+@Data
+@Builder
+public class NormalizedBookingsDto {
+    private List<BookingRefDto> bookings;
+    private Map<Long, CreateItemDto> items;
+    private Map<Long, CreateUserDto> users;
+}
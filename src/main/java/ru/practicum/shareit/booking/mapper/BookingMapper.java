@@ -1,17 +1,27 @@
 package ru.practicum.shareit.booking.mapper;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingRefDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.dto.NormalizedBookingsDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.CreateItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.CreateUserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 public class BookingMapper {
 
-    public static BookingDto toBookingDto(Booking booking, User user, Item item, BookingStatus status) {
+    public static BookingDto toBookingDto(Booking booking, CreateUserDto booker, CreateItemDto item,
+                                          BookingStatus status) {
         if (booking == null) {
             return null;
         }
@@ -19,8 +29,8 @@ public class BookingMapper {
                 .id(booking.getId())
                 .start(booking.getStartDate())
                 .end(booking.getEndDate())
-                .booker(UserMapper.toUserDto(user))
-                .item(ItemMapper.toItemDto(item))
+                .booker(booker)
+                .item(item)
                 .status(status)
                 .build();
 
@@ -52,4 +62,31 @@ public class BookingMapper {
                 .status(status)
                 .build();
     }
+
+    public static BookingRefDto toBookingRefDto(BookingDto booking) {
+        return BookingRefDto.builder()
+                .id(booking.getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .itemId(booking.getItem().getId())
+                .bookerId(booking.getBooker().getId())
+                .status(booking.getStatus())
+                .build();
+    }
+
+    public static NormalizedBookingsDto toNormalizedBookings(List<BookingDto> bookings) {
+        Map<Long, CreateItemDto> items = new LinkedHashMap<>();
+        Map<Long, CreateUserDto> users = new LinkedHashMap<>();
+        List<BookingRefDto> refs = new ArrayList<>(bookings.size());
+        for (BookingDto booking : bookings) {
+            items.putIfAbsent(booking.getItem().getId(), booking.getItem());
+            users.putIfAbsent(booking.getBooker().getId(), booking.getBooker());
+            refs.add(toBookingRefDto(booking));
+        }
+        return NormalizedBookingsDto.builder()
+                .bookings(refs)
+                .items(items)
+                .users(users)
+                .build();
+    }
 }
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Период бронирования относительно текущего момента. Хранится в строке бронирования
+ * и продвигается BookingPhaseSweeper по мере наступления start_date и end_date.
+ */
+public enum BookingPhase {
+    FUTURE,
+    CURRENT,
+    PAST;
+
+    public static BookingPhase at(LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+        if (!now.isBefore(end)) {
+            return PAST;
+        }
+        return now.isBefore(start) ? FUTURE : CURRENT;
+    }
+}
@@ -0,0 +1,6 @@
+package ru.practicum.shareit.booking.overlap;
+
+import java.time.LocalDateTime;
+
+public record BookedInterval(Long itemId, Long bookingId, LocalDateTime start, LocalDateTime end) {
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.booking.phase;
+
+import ru.practicum.shareit.booking.model.BookingPhase;
+
+import java.time.LocalDateTime;
+
+public record BookingPeriod(Long bookingId, LocalDateTime start, LocalDateTime end, BookingPhase phase) {
+}
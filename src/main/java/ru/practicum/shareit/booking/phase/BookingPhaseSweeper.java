@@ -0,0 +1,217 @@
+package ru.practicum.shareit.booking.phase;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPhase;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Продвигает фазы бронирований FUTURE -> CURRENT -> PAST.
+ * Переходы, наступающие в пределах horizon, лежат в очереди по времени: проверка перед чтением
+ * списков стоит одного сравнения, а UPDATE выполняется только для наступивших переходов
+ * по первичному ключу. Очередь раз в refill-interval дочитывается из БД до нового горизонта,
+ * поэтому в памяти только ближайшие переходы, а бронирования, созданные другим экземпляром,
+ * попадают в очередь не позже чем через refill-interval. Строки, изменённые в обход фаз
+ * (например, SQL), досчитываются reconcile.
+ * Очередь защищена собственным монитором и не блокируется на время запроса к БД.
+ * Проход выполняется одним потоком; читатель, заставший чужой проход, ждёт его завершения,
+ * чтобы не прочитать фазы, которые этот проход ещё не записал.
+ */
+@Slf4j
+@Component
+public class BookingPhaseSweeper {
+    private static final int UPDATE_CHUNK_SIZE = 1000;
+    private static final Map<BookingPhase, Set<BookingPhase>> PREVIOUS_PHASES = Map.of(
+            BookingPhase.CURRENT, Set.of(BookingPhase.FUTURE),
+            BookingPhase.PAST, Set.of(BookingPhase.FUTURE, BookingPhase.CURRENT));
+
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration horizon;
+
+    private final NavigableSet<PhaseTransition> transitions = new TreeSet<>(Comparator
+            .comparing(PhaseTransition::at)
+            .thenComparing(PhaseTransition::bookingId)
+            .thenComparing(PhaseTransition::phase));
+    private final ReentrantLock sweepLock = new ReentrantLock();
+    private volatile LocalDateTime nextDue = LocalDateTime.MAX;
+    private LocalDateTime queuedUntil;
+    private boolean sweeping;
+
+    public BookingPhaseSweeper(BookingRepository bookingRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${shareit.booking-phase.horizon:PT1H}") Duration horizon) {
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.horizon = horizon;
+        this.queuedUntil = LocalDateTime.now().plus(horizon);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        reconcile();
+        refill();
+        synchronized (transitions) {
+            log.info("Очередь смены фаз бронирований построена до {}: {} переходов.", queuedUntil,
+                    transitions.size());
+        }
+    }
+
+    public void schedule(Booking booking) {
+        BookingPeriod period = new BookingPeriod(booking.getId(), booking.getStartDate(), booking.getEndDate(),
+                booking.getPhase());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueueAll(List.of(period));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueueAll(List.of(period));
+            }
+        });
+    }
+
+    /**
+     * Применяет наступившие переходы. Вызывается по расписанию и перед чтением списков по состоянию,
+     * поэтому выборка по фазе не отстаёт от времени даже между запусками планировщика.
+     * Пока идёт проход, nextDue не сдвигается, и вызов из другого потока ждёт его завершения.
+     * Переходы, которые не удалось записать, возвращаются в очередь, и их повторит следующий вызов.
+     */
+    @Scheduled(fixedDelayString = "${shareit.booking-phase.sweep-interval:PT1S}")
+    public void advanceDue() {
+        if (nextDue.isAfter(LocalDateTime.now())) {
+            return;
+        }
+        sweepLock.lock();
+        try {
+            List<PhaseTransition> due = pollDue(LocalDateTime.now());
+            if (due.isEmpty()) {
+                return;
+            }
+            Map<BookingPhase, List<Long>> idsByPhase = new EnumMap<>(BookingPhase.class);
+            due.forEach(transition -> idsByPhase.computeIfAbsent(transition.phase(), phase -> new ArrayList<>())
+                    .add(transition.bookingId()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> idsByPhase.forEach(this::updatePhase));
+                finishSweep(List.of());
+            } catch (RuntimeException e) {
+                finishSweep(due);
+                log.warn("Не удалось применить {} переходов фаз бронирований, повтор при следующем проходе.",
+                        due.size(), e);
+            }
+        } finally {
+            sweepLock.unlock();
+        }
+    }
+
+    /**
+     * Дочитывает в очередь переходы до now + horizon. Граница сдвигается до запроса,
+     * поэтому бронирование, зафиксированное во время запроса, добавит в очередь schedule;
+     * переход, найденный обоими путями, хранится один раз.
+     */
+    @Scheduled(fixedDelayString = "${shareit.booking-phase.refill-interval:PT30S}",
+            initialDelayString = "${shareit.booking-phase.refill-interval:PT30S}")
+    public void refill() {
+        LocalDateTime until = LocalDateTime.now().plus(horizon);
+        synchronized (transitions) {
+            queuedUntil = until;
+        }
+        List<BookingPeriod> periods = transactionTemplate.execute(status -> {
+            List<BookingPeriod> found = new ArrayList<>(bookingRepository.findPeriodsByPhaseInAndStartBefore(
+                    PREVIOUS_PHASES.get(BookingPhase.CURRENT), until));
+            found.addAll(bookingRepository.findPeriodsByPhaseInAndEndBefore(
+                    PREVIOUS_PHASES.get(BookingPhase.PAST), until));
+            return found;
+        });
+        enqueueAll(periods);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-phase.reconcile-interval:PT10M}",
+            initialDelayString = "${shareit.booking-phase.reconcile-interval:PT10M}")
+    public void reconcile() {
+        LocalDateTime now = LocalDateTime.now();
+        int updated = transactionTemplate.execute(status ->
+                bookingRepository.updatePhaseByStartBefore(PREVIOUS_PHASES.get(BookingPhase.CURRENT),
+                        BookingPhase.CURRENT, now)
+                        + bookingRepository.updatePhaseByEndBefore(PREVIOUS_PHASES.get(BookingPhase.PAST),
+                        BookingPhase.PAST, now));
+        if (updated > 0) {
+            log.info("Досчитаны фазы бронирований вне очереди: {} строк.", updated);
+        }
+    }
+
+    private void updatePhase(BookingPhase phase, List<Long> ids) {
+        for (int from = 0; from < ids.size(); from += UPDATE_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + UPDATE_CHUNK_SIZE, ids.size()));
+            bookingRepository.updatePhase(chunk, PREVIOUS_PHASES.get(phase), phase);
+        }
+    }
+
+    private List<PhaseTransition> pollDue(LocalDateTime now) {
+        List<PhaseTransition> due = new ArrayList<>();
+        synchronized (transitions) {
+            while (!transitions.isEmpty() && !transitions.first().at().isAfter(now)) {
+                due.add(transitions.pollFirst());
+            }
+            sweeping = !due.isEmpty();
+            updateNextDue();
+        }
+        return due;
+    }
+
+    private void finishSweep(List<PhaseTransition> failed) {
+        synchronized (transitions) {
+            transitions.addAll(failed);
+            sweeping = false;
+            updateNextDue();
+        }
+    }
+
+    private void enqueueAll(List<BookingPeriod> periods) {
+        synchronized (transitions) {
+            for (BookingPeriod period : periods) {
+                if (period.phase() == BookingPhase.FUTURE && !period.start().isAfter(queuedUntil)) {
+                    transitions.add(new PhaseTransition(period.start(), period.bookingId(), BookingPhase.CURRENT));
+                }
+                if (period.phase() != BookingPhase.PAST && !period.end().isAfter(queuedUntil)) {
+                    transitions.add(new PhaseTransition(period.end(), period.bookingId(), BookingPhase.PAST));
+                }
+            }
+            updateNextDue();
+        }
+    }
+
+    /**
+     * Во время прохода nextDue остаётся в прошлом, чтобы читатели не обогнали запись наступивших переходов.
+     */
+    private void updateNextDue() {
+        if (sweeping) {
+            return;
+        }
+        nextDue = transitions.isEmpty() ? LocalDateTime.MAX : transitions.first().at();
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.booking.phase;
+
+import ru.practicum.shareit.booking.model.BookingPhase;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+public record BookingStateCount(BookingPhase phase, BookingStatus status, Long count) {
+}
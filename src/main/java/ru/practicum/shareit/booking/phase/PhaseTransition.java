@@ -0,0 +1,8 @@
+package ru.practicum.shareit.booking.phase;
+
+import ru.practicum.shareit.booking.model.BookingPhase;
+
+import java.time.LocalDateTime;
+
+public record PhaseTransition(LocalDateTime at, Long bookingId, BookingPhase phase) {
+}
@@ -1,36 +1,175 @@
 package ru.practicum.shareit.booking.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPhase;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.overlap.BookedInterval;
+import ru.practicum.shareit.booking.phase.BookingPeriod;
+import ru.practicum.shareit.booking.phase.BookingStateCount;
+import ru.practicum.shareit.etag.BookingRowVersion;
+import ru.practicum.shareit.etag.BookingVersion;
+import ru.practicum.shareit.owner.service.ItemBookingStats;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findByBookerIdOrderByStartDateDesc(Long bookerId);
+public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking>,
+        BookingVersionRepository {
 
-    List<Booking> findByBookerIdAndStartDateBeforeAndEndDateAfterOrderByStartDateDesc(
-            Long bookerId, LocalDateTime now1, LocalDateTime now2);
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findById(Long bookingId);
 
-    List<Booking> findByBookerIdAndEndDateBeforeOrderByStartDateDesc(Long bookerId, LocalDateTime now);
+    @Query("select b from Booking b join fetch b.item where b.id in :ids")
+    List<Booking> findWithItemByIdIn(@Param("ids") Collection<Long> ids);
 
-    List<Booking> findByBookerIdAndStartDateAfterOrderByStartDateDesc(Long bookerId, LocalDateTime now);
+    @Query("select b from Booking b join fetch b.item join fetch b.booker " +
+            "where b.item.id in :itemIds and b.status = :status " +
+            "and b.startDate = (select max(l.startDate) from Booking l " +
+            "where l.item.id = b.item.id and l.status = :status and l.startDate < :now)")
+    List<Booking> findLastBookings(@Param("itemIds") Collection<Long> itemIds,
+                                   @Param("status") BookingStatus status,
+                                   @Param("now") LocalDateTime now);
 
-    List<Booking> findByBookerIdAndStatusOrderByStartDateDesc(Long bookerId, BookingStatus status);
+    @Query("select b from Booking b join fetch b.item join fetch b.booker " +
+            "where b.item.id in :itemIds and b.status = :status " +
+            "and b.startDate = (select min(n.startDate) from Booking n " +
+            "where n.item.id = b.item.id and n.status = :status and n.startDate > :now)")
+    List<Booking> findNextBookings(@Param("itemIds") Collection<Long> itemIds,
+                                   @Param("status") BookingStatus status,
+                                   @Param("now") LocalDateTime now);
 
-    List<Booking> findByItemOwnerIdOrderByStartDateDesc(Long ownerId);
+    @Query("select new ru.practicum.shareit.booking.overlap.BookedInterval(b.item.id, b.id, b.startDate, b.endDate) " +
+            "from Booking b where b.status in :statuses and b.endDate > :now")
+    List<BookedInterval> findBookedIntervals(@Param("statuses") Collection<BookingStatus> statuses,
+                                             @Param("now") LocalDateTime now);
 
-    List<Booking> findByItemOwnerIdAndStartDateBeforeAndEndDateAfterOrderByStartDateDesc(Long ownerId, LocalDateTime now1, LocalDateTime now2);
+    @Query("select new ru.practicum.shareit.booking.overlap.BookedInterval(b.item.id, b.id, b.startDate, b.endDate) " +
+            "from Booking b where b.item.id = :itemId and b.status in :statuses and b.endDate > :now")
+    List<BookedInterval> findBookedIntervalsByItemId(@Param("itemId") Long itemId,
+                                                     @Param("statuses") Collection<BookingStatus> statuses,
+                                                     @Param("now") LocalDateTime now);
 
-    List<Booking> findByItemOwnerIdAndEndDateBeforeOrderByStartDateDesc(Long ownerId, LocalDateTime now);
+    @Query("select distinct b.item.id from Booking b where b.booker.id = :bookerId")
+    List<Long> findBookedItemIdsByBookerId(@Param("bookerId") Long bookerId);
 
-    List<Booking> findByItemOwnerIdAndStartDateAfterOrderByStartDateDesc(Long ownerId, LocalDateTime now);
+    boolean existsByItemIdAndStatusInAndStartDateBeforeAndEndDateAfter(Long itemId, Collection<BookingStatus> statuses,
+                                                                       LocalDateTime end, LocalDateTime start);
 
-    List<Booking> findByItemOwnerIdAndStatusOrderByStartDateDesc(Long ownerId, BookingStatus status);
+    boolean existsByItemIdAndIdNotAndStatusAndStartDateBeforeAndEndDateAfter(Long itemId, Long bookingId,
+                                                                             BookingStatus status,
+                                                                             LocalDateTime end, LocalDateTime start);
 
-    List<Booking> findByItemIdInAndStatus(List<Long> itemIds, BookingStatus status);
+    List<Booking> findByItemIdInAndStatusAndStartDateBeforeAndEndDateAfter(Collection<Long> itemIds,
+                                                                          BookingStatus status,
+                                                                          LocalDateTime end, LocalDateTime start);
 
     List<Booking> findByBookerIdAndItemIdAndStatusAndEndDateBefore(Long bookerId, Long itemId,
                                                                BookingStatus status, LocalDateTime end);
-}
\ No newline at end of file
+
+    @Query("select new ru.practicum.shareit.booking.phase.BookingPeriod(b.id, b.startDate, b.endDate, b.phase) " +
+            "from Booking b where b.phase in :phases and b.startDate <= :until")
+    List<BookingPeriod> findPeriodsByPhaseInAndStartBefore(@Param("phases") Collection<BookingPhase> phases,
+                                                           @Param("until") LocalDateTime until);
+
+    @Query("select new ru.practicum.shareit.booking.phase.BookingPeriod(b.id, b.startDate, b.endDate, b.phase) " +
+            "from Booking b where b.phase in :phases and b.endDate <= :until")
+    List<BookingPeriod> findPeriodsByPhaseInAndEndBefore(@Param("phases") Collection<BookingPhase> phases,
+                                                         @Param("until") LocalDateTime until);
+
+    /**
+     * Переход статуса только из ожидаемого: 0 изменённых строк - решение уже принято другим запросом.
+     */
+    @Modifying
+    @Query("update versioned Booking b set b.status = :status where b.id = :id and b.status = :expected")
+    int updateStatus(@Param("id") Long id,
+                     @Param("expected") BookingStatus expected,
+                     @Param("status") BookingStatus status);
+
+    @Modifying
+    @Query("update versioned Booking b set b.phase = :phase where b.id in :ids and b.phase in :fromPhases")
+    int updatePhase(@Param("ids") Collection<Long> ids,
+                    @Param("fromPhases") Collection<BookingPhase> fromPhases,
+                    @Param("phase") BookingPhase phase);
+
+    @Modifying
+    @Query("update versioned Booking b set b.phase = :phase where b.phase in :fromPhases and b.startDate <= :now")
+    int updatePhaseByStartBefore(@Param("fromPhases") Collection<BookingPhase> fromPhases,
+                                 @Param("phase") BookingPhase phase,
+                                 @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update versioned Booking b set b.phase = :phase where b.phase in :fromPhases and b.endDate <= :now")
+    int updatePhaseByEndBefore(@Param("fromPhases") Collection<BookingPhase> fromPhases,
+                               @Param("phase") BookingPhase phase,
+                               @Param("now") LocalDateTime now);
+
+    @Query("select new ru.practicum.shareit.booking.phase.BookingStateCount(b.phase, b.status, count(b)) " +
+            "from Booking b where b.booker.id = :bookerId group by b.phase, b.status")
+    List<BookingStateCount> countByBookerId(@Param("bookerId") Long bookerId);
+
+    @Query("select new ru.practicum.shareit.booking.phase.BookingStateCount(b.phase, b.status, count(b)) " +
+            "from Booking b where b.item.owner.id = :ownerId group by b.phase, b.status")
+    List<BookingStateCount> countByItemOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query("select new ru.practicum.shareit.owner.service.ItemBookingStats(i.id, i.name, count(b.id), " +
+            "sum(case when b.phase = ru.practicum.shareit.booking.model.BookingPhase.FUTURE then 1 else 0 end), " +
+            "sum(case when b.phase = ru.practicum.shareit.booking.model.BookingPhase.CURRENT then 1 else 0 end), " +
+            "sum(case when b.phase = ru.practicum.shareit.booking.model.BookingPhase.PAST then 1 else 0 end), " +
+            "sum(case when b.status = ru.practicum.shareit.booking.model.BookingStatus.WAITING then 1 else 0 end), " +
+            "sum(case when b.status = ru.practicum.shareit.booking.model.BookingStatus.REJECTED then 1 else 0 end), " +
+            "sum(case when b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED " +
+            "and b.startDate < :to and b.endDate > :from " +
+            "then (least(b.endDate, :to) - greatest(b.startDate, :from)) by second else 0 end)) " +
+            "from Item i left join Booking b on b.item = i " +
+            "where i.owner.id = :ownerId group by i.id, i.name order by i.id")
+    List<ItemBookingStats> findItemBookingStats(@Param("ownerId") Long ownerId,
+                                                @Param("from") LocalDateTime from,
+                                                @Param("to") LocalDateTime to);
+
+    /**
+     * Ближайшие подтверждённые будущие и ожидающие подтверждения непрошедшие бронирования владельца,
+     * не больше limit каждого вида, по возрастанию начала. Отбор по видам - одна оконная функция.
+     */
+    @Query("select b from Booking b join fetch b.item join fetch b.booker where b.id in (" +
+            "select r.id from (select s.id id, row_number() over (partition by s.status " +
+            "order by s.startDate, s.id) rn from Booking s where s.item.owner.id = :ownerId and (" +
+            "(s.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED " +
+            "and s.phase = ru.practicum.shareit.booking.model.BookingPhase.FUTURE) or " +
+            "(s.status = ru.practicum.shareit.booking.model.BookingStatus.WAITING " +
+            "and s.phase <> ru.practicum.shareit.booking.model.BookingPhase.PAST))) r " +
+            "where r.rn <= :limit) order by b.startDate, b.id")
+    List<Booking> findSoonestApprovedAndWaiting(@Param("ownerId") Long ownerId, @Param("limit") int limit);
+
+    @Query("select new ru.practicum.shareit.etag.BookingVersion(u.id, i.owner.id, b.version, i.version, u.version) " +
+            "from Booking b join b.item i join b.booker u where b.id = :bookingId")
+    Optional<BookingVersion> findVersionById(@Param("bookingId") Long bookingId);
+
+    @Query("select new ru.practicum.shareit.etag.BookingRowVersion(b.id, b.version, i.version, u.version) " +
+            "from Booking b join b.item i join b.booker u " +
+            "where i.id in :itemIds and b.status = :status " +
+            "and b.startDate = (select max(l.startDate) from Booking l " +
+            "where l.item.id = b.item.id and l.status = :status and l.startDate < :now) " +
+            "order by b.id")
+    List<BookingRowVersion> findLastBookingVersions(@Param("itemIds") Collection<Long> itemIds,
+                                                    @Param("status") BookingStatus status,
+                                                    @Param("now") LocalDateTime now);
+
+    @Query("select new ru.practicum.shareit.etag.BookingRowVersion(b.id, b.version, i.version, u.version) " +
+            "from Booking b join b.item i join b.booker u " +
+            "where i.id in :itemIds and b.status = :status " +
+            "and b.startDate = (select min(n.startDate) from Booking n " +
+            "where n.item.id = b.item.id and n.status = :status and n.startDate > :now) " +
+            "order by b.id")
+    List<BookingRowVersion> findNextBookingVersions(@Param("itemIds") Collection<Long> itemIds,
+                                                    @Param("status") BookingStatus status,
+                                                    @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPhase;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+public class BookingSpecifications {
+    public static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "startDate", "id");
+
+    private BookingSpecifications() {
+    }
+
+    public static Specification<Booking> byBooker(Long bookerId) {
+        return (root, query, cb) -> cb.equal(root.get("booker").get("id"), bookerId);
+    }
+
+    public static Specification<Booking> byItemOwner(Long ownerId) {
+        return (root, query, cb) -> cb.equal(root.get("item").get("owner").get("id"), ownerId);
+    }
+
+    public static Specification<Booking> inState(BookingState state) {
+        return switch (state) {
+            case ALL -> Specification.where(null);
+            case CURRENT -> withPhase(BookingPhase.CURRENT);
+            case PAST -> withPhase(BookingPhase.PAST);
+            case FUTURE -> withPhase(BookingPhase.FUTURE);
+            case WAITING -> withStatus(BookingStatus.WAITING);
+            case REJECTED -> withStatus(BookingStatus.REJECTED);
+        };
+    }
+
+    public static Specification<Booking> fetchItemAndBooker() {
+        return (root, query, cb) -> {
+            if (Booking.class.equals(query.getResultType())) {
+                root.fetch("item");
+                root.fetch("booker");
+            }
+            return null;
+        };
+    }
+
+    public static Specification<Booking> after(BookingCursor cursor) {
+        if (cursor == null) {
+            return Specification.where(null);
+        }
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("startDate"), cursor.startDate()),
+                cb.and(cb.equal(root.get("startDate"), cursor.startDate()),
+                        cb.lessThan(root.get("id"), cursor.id())));
+    }
+
+    private static Specification<Booking> withPhase(BookingPhase phase) {
+        return (root, query, cb) -> cb.equal(root.get("phase"), phase);
+    }
+
+    public static Specification<Booking> withStatus(BookingStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.etag.BookingRowVersion;
+
+import java.util.List;
+
+public interface BookingVersionRepository {
+
+    /**
+     * Версии бронирований страницы, выбранной так же, как сам список: те же условия, порядок,
+     * смещение и размер. Сущности не загружаются. Без limit выбираются все подходящие строки.
+     */
+    List<BookingRowVersion> findVersions(Specification<Booking> spec, Sort sort, int offset, Integer limit);
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.booking.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.etag.BookingRowVersion;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+class BookingVersionRepositoryImpl implements BookingVersionRepository {
+    private final EntityManager entityManager;
+
+    @Override
+    public List<BookingRowVersion> findVersions(Specification<Booking> spec, Sort sort, int offset, Integer limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingRowVersion> query = cb.createQuery(BookingRowVersion.class);
+        Root<Booking> root = query.from(Booking.class);
+        Join<Booking, Item> item = root.join("item");
+        Join<Booking, User> booker = root.join("booker");
+        query.select(cb.construct(BookingRowVersion.class, root.get("id"), root.get("version"),
+                item.get("version"), booker.get("version")));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        TypedQuery<BookingRowVersion> typedQuery = entityManager.createQuery(query).setFirstResult(offset);
+        if (limit != null) {
+            typedQuery.setMaxResults(limit);
+        }
+        return typedQuery.getResultList();
+    }
+}
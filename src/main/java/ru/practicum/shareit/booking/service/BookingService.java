@@ -1,10 +1,15 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 import ru.practicum.shareit.booking.model.BookingState;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface BookingService {
 
@@ -12,9 +17,23 @@ public interface BookingService {
 
     BookingDto updateBookingStatus(Long bookingId, Boolean approved, Long ownerId);
 
+    List<BookingDecisionResultDto> updateBookingStatuses(List<BookingDecisionDto> decisions, Long ownerId);
+
     BookingDto getBookingById(Long bookingId, Long userId);
 
-    List<BookingDto> getUserBookings(Long userId, BookingState state);
+    String getBookingETag(Long bookingId, Long userId);
+
+    BookingPageDto getUserBookings(Long userId, BookingState state, Integer from, Integer size, String cursor);
+
+    BookingPageDto getOwnerBookings(Long ownerId, BookingState state, Integer from, Integer size, String cursor);
+
+    String getOwnerBookingsETag(Long ownerId, BookingState state, Integer from, Integer size, String cursor);
+
+    Map<BookingState, Long> getUserBookingCounts(Long userId);
+
+    Map<BookingState, Long> getOwnerBookingCounts(Long ownerId);
+
+    void streamUserBookings(Long userId, BookingState state, Consumer<List<BookingDto>> chunkConsumer);
 
-    List<BookingDto> getOwnerBookings(Long ownerId, BookingState state);
+    void streamOwnerBookings(Long ownerId, BookingState state, Consumer<List<BookingDto>> chunkConsumer);
 }
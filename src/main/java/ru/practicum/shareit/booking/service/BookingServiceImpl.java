@@ -1,40 +1,84 @@
 package ru.practicum.shareit.booking.service;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.phase.BookingPhaseSweeper;
+import ru.practicum.shareit.booking.phase.BookingStateCount;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingSpecifications;
+import ru.practicum.shareit.config.RetryOnConflict;
+import ru.practicum.shareit.etag.BookingRowVersion;
+import ru.practicum.shareit.etag.BookingVersion;
+import ru.practicum.shareit.etag.EntityTags;
+import ru.practicum.shareit.event.BookingStatusChangedEvent;
+import ru.practicum.shareit.event.DomainEventPublisher;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.dto.ItemSummaryDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
-import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.item.service.ItemLookup;
+import ru.practicum.shareit.owner.service.OwnerDashboardCacheEvictor;
+import ru.practicum.shareit.user.dto.UserSummaryDto;
+import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserLookup;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final int DEFAULT_PAGE_SIZE = 10;
+    private static final int STREAM_CHUNK_SIZE = 500;
+    private static final List<BookingStatus> OCCUPYING_STATUSES = List.of(BookingStatus.WAITING,
+            BookingStatus.APPROVED);
+
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserLookup userLookup;
+    private final ItemLookup itemLookup;
+    private final EntityManager entityManager;
+    private final BookingPhaseSweeper bookingPhaseSweeper;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final DomainEventPublisher domainEventPublisher;
+    private final OwnerDashboardCacheEvictor ownerDashboardCacheEvictor;
 
     @Override
+    @RetryOnConflict
+    @Transactional
     public BookingDto createBooking(CreateBookingDto bookingDto, Long userId) {
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с ID " + userId + " не найден."));
-        Item item = itemRepository.findById(bookingDto.getItemId())
-                .orElseThrow(() -> new NotFoundException("Вещь с ID " + bookingDto.getItemId() + " не найдена."));
+        UserSummaryDto booker = userLookup.get(userId);
+        ItemSummaryDto itemSummary = itemLookup.get(bookingDto.getItemId());
 
         if (bookingDto.getStart() == null || bookingDto.getEnd() == null ||
                 bookingDto.getStart().isAfter(bookingDto.getEnd()) ||
@@ -44,21 +88,33 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Неверные даты бронирования.");
         }
 
-        if (!item.getAvailable()) {
+        if (!itemSummary.available()) {
             throw new ValidationException("Вещь в данный момент недоступна.");
         }
 
-        if (item.getOwner().getId().equals(userId)) {
+        if (itemSummary.ownerId().equals(userId)) {
             throw new ValidationException("Владелец не может забронировать свою собственную вещь.");
         }
 
-        Booking booking = BookingMapper.toBooking(bookingDto, user, item, BookingStatus.WAITING);
+        Item item = itemRepository.findWithLockById(itemSummary.id())
+                .orElseThrow(() -> new NotFoundException("Вещь с ID " + itemSummary.id() + " не найдена."));
+        if (bookingRepository.existsByItemIdAndStatusInAndStartDateBeforeAndEndDateAfter(item.getId(),
+                OCCUPYING_STATUSES, bookingDto.getEnd(), bookingDto.getStart())) {
+            throw new ValidationException("Вещь уже забронирована на эти даты.");
+        }
+
+        Booking booking = BookingMapper.toBooking(bookingDto, userRepository.getReferenceById(userId), item,
+                BookingStatus.WAITING);
         Booking savedBooking = bookingRepository.save(booking);
+        bookingPhaseSweeper.schedule(savedBooking);
+        ownerDashboardCacheEvictor.evict(itemSummary.ownerId());
 
-        return BookingMapper.toBookingDto(savedBooking, user, item, BookingStatus.WAITING);
+        return BookingMapper.toBookingDto(savedBooking, UserMapper.toUserDto(booker), ItemMapper.toItemDto(item),
+                BookingStatus.WAITING);
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public BookingDto updateBookingStatus(Long bookingId, Boolean approved, Long ownerId) {
         Booking booking = bookingRepository.findById(bookingId)
@@ -66,17 +122,98 @@ public class BookingServiceImpl implements BookingService {
         if (!booking.getItem().getOwner().getId().equals(ownerId)) {
             throw new ValidationException("Только владелец может подтвердить бронирование");
         }
-        User booker = userRepository.findById(booking.getBooker().getId())
-                .orElseThrow(() -> new NotFoundException("Пользователь с ID " + ownerId + " не найден."));
-        Item item = itemRepository.findById(booking.getItem().getId())
-                .orElseThrow(() -> new NotFoundException("Вещь с ID " + booking.getItem().getId() + " не найдена."));
 
-        booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        Booking updatedBooking = bookingRepository.save(booking);
-        return BookingMapper.toBookingDto(updatedBooking);
+        if (booking.getStatus() != BookingStatus.WAITING) {
+            throw new ValidationException("Бронирование уже рассмотрено.");
+        }
+
+        if (approved) {
+            Long itemId = booking.getItem().getId();
+            itemRepository.findWithLockById(itemId);
+            if (bookingRepository.existsByItemIdAndIdNotAndStatusAndStartDateBeforeAndEndDateAfter(itemId,
+                    bookingId, BookingStatus.APPROVED, booking.getEndDate(), booking.getStartDate())) {
+                throw new ValidationException("Вещь уже забронирована на эти даты.");
+            }
+        }
+
+        if (bookingRepository.updateStatus(bookingId, BookingStatus.WAITING,
+                approved ? BookingStatus.APPROVED : BookingStatus.REJECTED) == 0) {
+            throw new ValidationException("Бронирование уже рассмотрено.");
+        }
+        entityManager.refresh(booking);
+        if (approved) {
+            itemAvailabilityIndex.add(booking);
+        }
+        ownerDashboardCacheEvictor.evict(ownerId);
+        domainEventPublisher.publish(toStatusChangedEvent(booking));
+        return BookingMapper.toBookingDto(booking);
     }
 
+    /**
+     * Статусы меняются через версию сущности: если решение по бронированию принято параллельно,
+     * сохранение пачки падает на проверке версии, и повторная попытка вернёт "уже рассмотрено".
+     */
     @Override
+    @RetryOnConflict
+    @Transactional
+    public List<BookingDecisionResultDto> updateBookingStatuses(List<BookingDecisionDto> decisions, Long ownerId) {
+        Map<Long, Booking> bookings = bookingRepository.findWithItemByIdIn(decisions.stream()
+                        .map(BookingDecisionDto::getBookingId)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        String[] errors = new String[decisions.size()];
+        Set<Long> decidedIds = new HashSet<>();
+        List<Booking> approvals = new ArrayList<>();
+        for (int i = 0; i < decisions.size(); i++) {
+            BookingDecisionDto decision = decisions.get(i);
+            Booking booking = bookings.get(decision.getBookingId());
+            errors[i] = validateDecision(decision, booking, ownerId, decidedIds);
+            if (errors[i] == null && decision.getApproved()) {
+                approvals.add(booking);
+            }
+        }
+        Map<Long, List<Booking>> approvedByItemId = lockAndFindApproved(approvals);
+
+        List<BookingDecisionResultDto> results = new ArrayList<>(decisions.size());
+        List<Booking> changed = new ArrayList<>();
+        for (int i = 0; i < decisions.size(); i++) {
+            BookingDecisionDto decision = decisions.get(i);
+            Booking booking = bookings.get(decision.getBookingId());
+            if (errors[i] == null && decision.getApproved()) {
+                List<Booking> approved = approvedByItemId.computeIfAbsent(booking.getItem().getId(),
+                        itemId -> new ArrayList<>());
+                if (overlapsAny(approved, booking)) {
+                    errors[i] = "Вещь уже забронирована на эти даты.";
+                } else {
+                    booking.setStatus(BookingStatus.APPROVED);
+                    itemAvailabilityIndex.add(booking);
+                    approved.add(booking);
+                    changed.add(booking);
+                }
+            } else if (errors[i] == null) {
+                booking.setStatus(BookingStatus.REJECTED);
+                changed.add(booking);
+            }
+            results.add(BookingDecisionResultDto.builder()
+                    .bookingId(decision.getBookingId())
+                    .status(errors[i] == null ? booking.getStatus() : null)
+                    .error(errors[i])
+                    .build());
+        }
+        bookingRepository.saveAll(changed);
+        if (!changed.isEmpty()) {
+            ownerDashboardCacheEvictor.evict(ownerId);
+        }
+        domainEventPublisher.publishAll(changed.stream()
+                .map(BookingServiceImpl::toStatusChangedEvent)
+                .toList());
+        return results;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public BookingDto getBookingById(Long bookingId, Long ownerId) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Бронирование с ID " + bookingId + " не найдено."));
@@ -89,70 +226,230 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingDto> getUserBookings(Long userId, BookingState state) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с ID " + userId + " не найден."));
-        List<Booking> bookings;
-        LocalDateTime now = LocalDateTime.now();
-        switch (state) {
-            case ALL:
-                bookings = bookingRepository.findByBookerIdOrderByStartDateDesc(userId);
-                break;
-            case CURRENT:
-                bookings =  bookingRepository.findByBookerIdAndStartDateBeforeAndEndDateAfterOrderByStartDateDesc(userId, now, now);
-                break;
-            case PAST:
-                bookings =  bookingRepository.findByBookerIdAndEndDateBeforeOrderByStartDateDesc(userId, now);
-                break;
-            case FUTURE:
-                bookings =  bookingRepository.findByBookerIdAndStartDateAfterOrderByStartDateDesc(userId, now);
-                break;
-            case WAITING:
-                bookings =  bookingRepository.findByBookerIdAndStatusOrderByStartDateDesc(userId, BookingStatus.WAITING);
-                break;
-            case REJECTED:
-                bookings =  bookingRepository.findByBookerIdAndStatusOrderByStartDateDesc(userId, BookingStatus.REJECTED);
-                break;
-            default:
-                throw new NotFoundException("Неизвестное состояние бронирования: " + state);
-        }
-
-        return bookings.stream()
-                .map(BookingMapper::toBookingDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public String getBookingETag(Long bookingId, Long userId) {
+        BookingVersion version = bookingRepository.findVersionById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Бронирование с ID " + bookingId + " не найдено."));
+        if (!version.bookerId().equals(userId) && !version.ownerId().equals(userId)) {
+            throw new ValidationException("Доступ запрещен.");
+        }
+        return EntityTags.of(bookingId, version.bookingVersion(), version.itemVersion(), version.bookerVersion());
     }
 
     @Override
-    public List<BookingDto> getOwnerBookings(Long ownerId, BookingState state) {
-        userRepository.findById(ownerId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с ID " + ownerId + " не найден."));
-        List<Booking> bookings;
-        LocalDateTime now = LocalDateTime.now();
-        switch (state) {
-            case ALL:
-                bookings = bookingRepository.findByItemOwnerIdOrderByStartDateDesc(ownerId);
-                break;
-            case CURRENT:
-                bookings =  bookingRepository.findByItemOwnerIdAndStartDateBeforeAndEndDateAfterOrderByStartDateDesc(ownerId, now, now);
-                break;
-            case PAST:
-                bookings =  bookingRepository.findByItemOwnerIdAndEndDateBeforeOrderByStartDateDesc(ownerId, now);
-                break;
-            case FUTURE:
-                bookings =  bookingRepository.findByItemOwnerIdAndStartDateAfterOrderByStartDateDesc(ownerId, now);
-                break;
-            case WAITING:
-                bookings =  bookingRepository.findByItemOwnerIdAndStatusOrderByStartDateDesc(ownerId, BookingStatus.WAITING);
-                break;
-            case REJECTED:
-                bookings =  bookingRepository.findByItemOwnerIdAndStatusOrderByStartDateDesc(ownerId, BookingStatus.REJECTED);
-                break;
-            default:
-                throw new NotFoundException("Неизвестное состояние бронирования: " + state);
-        }
-        return bookings.stream()
-                .map(BookingMapper::toBookingDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public BookingPageDto getUserBookings(Long userId, BookingState state, Integer from, Integer size, String cursor) {
+        userLookup.get(userId);
+        return findPage(BookingSpecifications.byBooker(userId), state, from, size, cursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingPageDto getOwnerBookings(Long ownerId, BookingState state, Integer from, Integer size, String cursor) {
+        userLookup.get(ownerId);
+        return findPage(BookingSpecifications.byItemOwner(ownerId), state, from, size, cursor);
+    }
+
+    /**
+     * ETag считается по версиям только тех бронирований, что попадут в страницу, без загрузки сущностей,
+     * и по наличию следующей страницы, от которого зависит X-Next-Cursor.
+     * Фазы продвигаются обновлением с увеличением версии, поэтому смена состояния по времени
+     * тоже меняет ETag списка.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public String getOwnerBookingsETag(Long ownerId, BookingState state, Integer from, Integer size, String cursor) {
+        userLookup.get(ownerId);
+        bookingPhaseSweeper.advanceDue();
+        BookingCursor after = BookingCursor.decode(cursor);
+        Specification<Booking> spec = BookingSpecifications.byItemOwner(ownerId)
+                .and(BookingSpecifications.inState(state))
+                .and(BookingSpecifications.after(after));
+        List<BookingRowVersion> versions;
+        boolean hasNext = false;
+        if (from == null && size == null && after == null) {
+            versions = bookingRepository.findVersions(spec, BookingSpecifications.NEWEST_FIRST, 0, null);
+        } else {
+            int offset = after != null || from == null ? 0 : from;
+            int limit = size == null ? DEFAULT_PAGE_SIZE : size;
+            List<BookingRowVersion> rows = bookingRepository.findVersions(spec, BookingSpecifications.NEWEST_FIRST,
+                    offset, limit + 1);
+            hasNext = rows.size() > limit;
+            versions = hasNext ? rows.subList(0, limit) : rows;
+        }
+        return EntityTags.of(ownerId, state, from, size, cursor, versions, hasNext);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<BookingState, Long> getUserBookingCounts(Long userId) {
+        userLookup.get(userId);
+        bookingPhaseSweeper.advanceDue();
+        return toStateCounts(bookingRepository.countByBookerId(userId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<BookingState, Long> getOwnerBookingCounts(Long ownerId) {
+        userLookup.get(ownerId);
+        bookingPhaseSweeper.advanceDue();
+        return toStateCounts(bookingRepository.countByItemOwnerId(ownerId));
     }
-}
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamUserBookings(Long userId, BookingState state, Consumer<List<BookingDto>> chunkConsumer) {
+        stream(BookingSpecifications.byBooker(userId), state, chunkConsumer);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamOwnerBookings(Long ownerId, BookingState state, Consumer<List<BookingDto>> chunkConsumer) {
+        stream(BookingSpecifications.byItemOwner(ownerId), state, chunkConsumer);
+    }
+
+    private static BookingStatusChangedEvent toStatusChangedEvent(Booking booking) {
+        return new BookingStatusChangedEvent(booking.getId(), booking.getItem().getId(),
+                booking.getBooker().getId(), booking.getItem().getOwner().getId(), booking.getStatus());
+    }
+
+    private static String validateDecision(BookingDecisionDto decision, Booking booking, Long ownerId,
+                                           Set<Long> decidedIds) {
+        if (booking == null) {
+            return "Бронирование с ID " + decision.getBookingId() + " не найдено.";
+        }
+        if (!booking.getItem().getOwner().getId().equals(ownerId)) {
+            return "Только владелец может подтвердить бронирование";
+        }
+        if (!decidedIds.add(booking.getId())) {
+            return "Повторное решение по бронированию.";
+        }
+        if (booking.getStatus() != BookingStatus.WAITING) {
+            return "Бронирование уже рассмотрено.";
+        }
+        return null;
+    }
+
+    private Map<Long, List<Booking>> lockAndFindApproved(List<Booking> approvals) {
+        if (approvals.isEmpty()) {
+            return new HashMap<>();
+        }
+        Set<Long> itemIds = approvals.stream()
+                .map(booking -> booking.getItem().getId())
+                .collect(Collectors.toSet());
+        LocalDateTime from = approvals.stream().map(Booking::getStartDate).min(LocalDateTime::compareTo).get();
+        LocalDateTime to = approvals.stream().map(Booking::getEndDate).max(LocalDateTime::compareTo).get();
+
+        itemRepository.findAllWithLockByIdInOrderByIdAsc(itemIds);
+        return bookingRepository.findByItemIdInAndStatusAndStartDateBeforeAndEndDateAfter(itemIds,
+                        BookingStatus.APPROVED, to, from)
+                .stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId(),
+                        HashMap::new, Collectors.toCollection(ArrayList::new)));
+    }
+
+    private static boolean overlapsAny(List<Booking> bookings, Booking candidate) {
+        return bookings.stream().anyMatch(booking -> booking.getStartDate().isBefore(candidate.getEndDate()) &&
+                booking.getEndDate().isAfter(candidate.getStartDate()));
+    }
+
+    private static Map<BookingState, Long> toStateCounts(List<BookingStateCount> counts) {
+        Map<BookingState, Long> result = new EnumMap<>(BookingState.class);
+        for (BookingState state : BookingState.values()) {
+            result.put(state, 0L);
+        }
+        for (BookingStateCount count : counts) {
+            result.merge(BookingState.ALL, count.count(), Long::sum);
+            BookingState byPhase = switch (count.phase()) {
+                case FUTURE -> BookingState.FUTURE;
+                case CURRENT -> BookingState.CURRENT;
+                case PAST -> BookingState.PAST;
+            };
+            result.merge(byPhase, count.count(), Long::sum);
+            if (count.status() == BookingStatus.WAITING) {
+                result.merge(BookingState.WAITING, count.count(), Long::sum);
+            } else if (count.status() == BookingStatus.REJECTED) {
+                result.merge(BookingState.REJECTED, count.count(), Long::sum);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Без from, size и cursor возвращается весь список, как до появления постраничной выдачи,
+     * и курсор следующей страницы не выдаётся. Если задан хотя бы один из параметров,
+     * недостающие берутся по умолчанию: from = 0, size = 10.
+     */
+    private BookingPageDto findPage(Specification<Booking> filter, BookingState state,
+                                    Integer from, Integer size, String cursor) {
+        bookingPhaseSweeper.advanceDue();
+        BookingCursor after = BookingCursor.decode(cursor);
+        Specification<Booking> spec = filter
+                .and(BookingSpecifications.inState(state))
+                .and(BookingSpecifications.after(after))
+                .and(BookingSpecifications.fetchItemAndBooker());
+
+        if (from == null && size == null && after == null) {
+            return BookingPageDto.builder()
+                    .bookings(bookingRepository.findBy(spec, query -> query
+                                    .sortBy(BookingSpecifications.NEWEST_FIRST)
+                                    .all())
+                            .stream()
+                            .map(BookingMapper::toBookingDto)
+                            .collect(Collectors.toList()))
+                    .build();
+        }
+        int offset = from == null ? 0 : from;
+        int limit = size == null ? DEFAULT_PAGE_SIZE : size;
+
+        List<Booking> rows;
+        if (after != null || offset == 0) {
+            rows = bookingRepository.findBy(spec, query -> query
+                    .sortBy(BookingSpecifications.NEWEST_FIRST)
+                    .limit(limit + 1)
+                    .all());
+        } else {
+            rows = bookingRepository.findBy(spec, query -> query
+                    .sortBy(BookingSpecifications.NEWEST_FIRST)
+                    .limit(limit + 1)
+                    .scroll(ScrollPosition.offset(offset - 1))
+                    .getContent());
+        }
+
+        boolean hasNext = rows.size() > limit;
+        List<Booking> bookings = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = hasNext
+                ? BookingCursor.of(bookings.getLast()).encode()
+                : null;
+        return BookingPageDto.builder()
+                .bookings(bookings.stream()
+                        .map(BookingMapper::toBookingDto)
+                        .collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private void stream(Specification<Booking> filter, BookingState state,
+                        Consumer<List<BookingDto>> chunkConsumer) {
+        bookingPhaseSweeper.advanceDue();
+        Specification<Booking> spec = filter
+                .and(BookingSpecifications.inState(state))
+                .and(BookingSpecifications.fetchItemAndBooker());
+        List<BookingDto> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+        try (Stream<Booking> bookings = bookingRepository.findBy(spec, query -> query
+                .sortBy(BookingSpecifications.NEWEST_FIRST)
+                .stream())) {
+            bookings.forEach(booking -> {
+                chunk.add(BookingMapper.toBookingDto(booking));
+                entityManager.detach(booking);
+                if (chunk.size() == STREAM_CHUNK_SIZE) {
+                    chunkConsumer.accept(List.copyOf(chunk));
+                    chunk.clear();
+                }
+            });
+        }
+        if (!chunk.isEmpty()) {
+            chunkConsumer.accept(chunk);
+        }
+    }
+}
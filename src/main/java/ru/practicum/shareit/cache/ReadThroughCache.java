@@ -0,0 +1,47 @@
+package ru.practicum.shareit.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.datasource.ReplicaRoutingDataSource;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Кэш неизменяемых значений перед загрузкой из БД. Загрузка идёт в транзакции только для чтения
+ * (или в уже открытой транзакции вызывающего); значение, прочитанное из реплики, в кэш не кладётся,
+ * иначе отставшая строка пережила бы вытеснение после записи. Внутри транзакции запись в кэш
+ * откладывается до коммита: менеджер кэшей обёрнут в TransactionAwareCacheManagerProxy.
+ */
+public class ReadThroughCache<K, V> {
+    private final Cache cache;
+    private final Class<V> type;
+    private final TransactionTemplate readOnly;
+
+    public ReadThroughCache(CacheManager cacheManager, String cacheName, Class<V> type,
+                            PlatformTransactionManager transactionManager) {
+        this.cache = Objects.requireNonNull(cacheManager.getCache(cacheName), cacheName);
+        this.type = type;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+
+    public Optional<V> get(K key, Function<K, Optional<V>> loader) {
+        V cached = cache.get(key, type);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Loaded<V> loaded = readOnly.execute(status ->
+                new Loaded<>(loader.apply(key), ReplicaRoutingDataSource.isReplicaRead()));
+        if (loaded.value().isPresent() && !loaded.fromReplica()) {
+            cache.put(key, loaded.value().get());
+        }
+        return loaded.value();
+    }
+
+    private record Loaded<V>(Optional<V> value, boolean fromReplica) {
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+    public static final String USERS = "users";
+    public static final String ITEMS = "items";
+    public static final String OWNER_DASHBOARDS = "ownerDashboards";
+
+    /**
+     * Кэш заполняется и очищается только после коммита транзакции,
+     * чтобы в него не попадали данные откаченных транзакций.
+     * Реализацию (Caffeine) можно заменить на распределённую, не меняя сервисы.
+     */
+    @Bean
+    public CacheManager cacheManager(CacheProperties cacheProperties,
+                                     @Value("${shareit.cache.owner-dashboards.ttl:PT30S}") Duration dashboardTtl) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCacheSpecification(cacheProperties.getCaffeine().getSpec());
+        cacheManager.setCacheNames(cacheProperties.getCacheNames());
+        // Сводка зависит от текущего времени (фазы бронирований), поэтому живёт недолго
+        cacheManager.registerCustomCache(OWNER_DASHBOARDS, Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(dashboardTtl)
+                .recordStats()
+                .build());
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
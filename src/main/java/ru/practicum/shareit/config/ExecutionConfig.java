@@ -0,0 +1,16 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Режим потоков задаётся свойством spring.threads.virtual.enabled: при значении true
+ * Tomcat работает на виртуальных потоках. Число одновременных обращений к БД ограничивает
+ * сам пул Hikari (maximum-pool-size), а connection-timeout не даёт ожидающим копиться:
+ * не дождавшийся соединения запрос получает 503.
+ * Фоновые задачи @Scheduled (смена фаз бронирований) выполняет стандартный планировщик.
+ */
+@Configuration
+@EnableScheduling
+public class ExecutionConfig {
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.practicum.shareit.ratelimit.AdmissionControlInterceptor;
+import ru.practicum.shareit.ratelimit.RateLimitInterceptor;
+
+/**
+ * Сначала лимит пользователя, затем общий лимит: запросы сверх личного лимита
+ * отклоняются, не занимая место среди выполняемых.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class RateLimitConfig implements WebMvcConfigurer {
+    private final RateLimitInterceptor rateLimitInterceptor;
+    private final AdmissionControlInterceptor admissionControlInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(rateLimitInterceptor);
+        registry.addInterceptor(admissionControlInterceptor);
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.annotation.EnableRetry;
+
+/**
+ * Совет @Retryable применяется раньше @Transactional, поэтому каждая попытка
+ * выполняется в новой транзакции и заново читает данные.
+ */
+@Configuration
+@EnableRetry
+public class RetryConfig {
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Повторяет метод при конфликте версий или блокировок: ограниченное число попыток
+ * с экспоненциальной задержкой и случайным разбросом, чтобы конкурирующие запросы не повторялись синхронно.
+ * После последней попытки исключение уходит в ErrorHandler (409 для конфликта версий).
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Retryable(retryFor = {OptimisticLockingFailureException.class, PessimisticLockingFailureException.class},
+        maxAttemptsExpression = "${shareit.retry.max-attempts:5}",
+        backoff = @Backoff(delayExpression = "${shareit.retry.delay:10}",
+                maxDelayExpression = "${shareit.retry.max-delay:200}",
+                multiplier = 2, random = true))
+public @interface RetryOnConflict {
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Связывает поток запроса с пользователем из X-Sharer-User-Id для ReadYourWritesTracker.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    private static final String USER_ID = "X-Sharer-User-Id";
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    public ReadYourWritesFilter(ReadYourWritesTracker readYourWritesTracker) {
+        this.readYourWritesTracker = readYourWritesTracker;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String userId = request.getHeader(USER_ID);
+        try {
+            if (userId != null) {
+                try {
+                    readYourWritesTracker.setCurrentUser(Long.valueOf(userId.trim()));
+                } catch (NumberFormatException e) {
+                    // некорректный заголовок отклонит контроллер
+                }
+            }
+            chain.doFilter(request, response);
+        } finally {
+            readYourWritesTracker.clearCurrentUser();
+        }
+    }
+}
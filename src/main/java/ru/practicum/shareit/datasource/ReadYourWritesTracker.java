@@ -0,0 +1,46 @@
+package ru.practicum.shareit.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * Пользователи, которые недавно что-то записали. Пока запись не старше допустимого отставания реплики,
+ * их читающие транзакции идут в основную базу и видят собственные изменения.
+ * Пользователь текущего потока задаётся ReadYourWritesFilter по заголовку X-Sharer-User-Id.
+ */
+public class ReadYourWritesTracker {
+    private static final ThreadLocal<Long> CURRENT_USER = new ThreadLocal<>();
+
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(Duration maxLag) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(maxLag)
+                .build();
+    }
+
+    public void setCurrentUser(Long userId) {
+        CURRENT_USER.set(userId);
+    }
+
+    public void clearCurrentUser() {
+        CURRENT_USER.remove();
+    }
+
+    public Long getCurrentUser() {
+        return CURRENT_USER.get();
+    }
+
+    public void recordWrite(Long userId) {
+        if (userId != null) {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    public boolean hasRecentWrite() {
+        Long userId = CURRENT_USER.get();
+        return userId != null && recentWriters.getIfPresent(userId) != null;
+    }
+}
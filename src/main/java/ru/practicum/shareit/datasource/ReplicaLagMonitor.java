@@ -0,0 +1,62 @@
+package ru.practicum.shareit.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Периодически измеряет отставание реплики запросом lag-query, который возвращает секунды.
+ * Если отставание больше max-lag или реплика недоступна, все чтения идут в основную базу.
+ * Без lag-query реплика считается не отстающей больше max-lag.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final String lagQuery;
+    private final Duration maxLag;
+
+    private volatile boolean withinTolerance = true;
+    private volatile double lagSeconds;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, String lagQuery, Duration maxLag,
+                             MeterRegistry meterRegistry) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.lagQuery = lagQuery == null || lagQuery.isBlank() ? null : lagQuery;
+        this.maxLag = maxLag;
+        Gauge.builder("shareit.datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+                .description("Отставание реплики для чтения")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public boolean isWithinTolerance() {
+        return withinTolerance;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.replica-routing.lag-check-interval:PT5S}")
+    public void check() {
+        if (lagQuery == null) {
+            return;
+        }
+        boolean wasWithinTolerance = withinTolerance;
+        try {
+            Double lag = replicaJdbcTemplate.queryForObject(lagQuery, Double.class);
+            lagSeconds = lag == null ? 0 : lag;
+            withinTolerance = lagSeconds * 1000 <= maxLag.toMillis();
+        } catch (DataAccessException e) {
+            log.warn("Не удалось измерить отставание реплики: {}", e.getMessage());
+            withinTolerance = false;
+        }
+        if (wasWithinTolerance != withinTolerance) {
+            log.warn(withinTolerance
+                    ? "Реплика догнала основную базу, чтения возвращаются в реплику."
+                    : "Реплика отстаёт на {} с, чтения переключены на основную базу.", lagSeconds);
+        }
+    }
+}
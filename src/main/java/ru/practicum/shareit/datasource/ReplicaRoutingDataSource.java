@@ -0,0 +1,72 @@
+package ru.practicum.shareit.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Выбирает базу при первом обращении транзакции к соединению, поэтому должен стоять
+ * за LazyConnectionDataSourceProxy: к этому моменту признак readOnly транзакции уже известен.
+ * Читающие транзакции идут в реплику, если она не отстаёт и пользователь недавно не писал;
+ * остальные - в основную базу. Пишущая транзакция после фиксации помечает пользователя в ReadYourWritesTracker.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    private static final String REPLICA_READ = ReplicaRoutingDataSource.class.getName() + ".replicaRead";
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final ReplicaLagMonitor replicaLagMonitor;
+
+    public ReplicaRoutingDataSource(ReadYourWritesTracker readYourWritesTracker,
+                                    ReplicaLagMonitor replicaLagMonitor) {
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.replicaLagMonitor = replicaLagMonitor;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (readYourWritesTracker.hasRecentWrite() || !replicaLagMonitor.isWithinTolerance()) {
+                return DataSourceRole.PRIMARY;
+            }
+            markReplicaRead();
+            return DataSourceRole.REPLICA;
+        }
+        Long userId = readYourWritesTracker.getCurrentUser();
+        if (userId != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    readYourWritesTracker.recordWrite(userId);
+                }
+            });
+        }
+        return DataSourceRole.PRIMARY;
+    }
+
+    /**
+     * Транзакция читает из реплики, и её данные могут отставать: такие результаты не кладутся в общие кеши,
+     * иначе устаревшая строка пережила бы вытеснение после записи.
+     */
+    public static boolean isReplicaRead() {
+        return TransactionSynchronizationManager.hasResource(REPLICA_READ);
+    }
+
+    private static void markReplicaRead() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(REPLICA_READ)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(REPLICA_READ, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(REPLICA_READ);
+            }
+        });
+    }
+
+    public enum DataSourceRole {
+        PRIMARY,
+        REPLICA
+    }
+}
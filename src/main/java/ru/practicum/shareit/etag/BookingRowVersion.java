@@ -0,0 +1,7 @@
+package ru.practicum.shareit.etag;
+
+/**
+ * Версии строк, из которых собрано одно бронирование в ответе: само бронирование, вещь и арендатор.
+ */
+public record BookingRowVersion(Long id, Long version, Long itemVersion, Long bookerVersion) {
+}
@@ -0,0 +1,5 @@
+package ru.practicum.shareit.etag;
+
+public record BookingVersion(Long bookerId, Long ownerId, Long bookingVersion, Long itemVersion,
+                             Long bookerVersion) {
+}
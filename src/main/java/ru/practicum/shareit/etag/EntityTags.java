@@ -0,0 +1,72 @@
+package ru.practicum.shareit.etag;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Строгие ETag ответов по версиям строк, из которых собран ответ.
+ * Значение вычисляется проекционными запросами без загрузки сущностей и связей.
+ */
+public class EntityTags {
+    private static final String JSON = "json";
+    private static final List<MediaType> BINARY_FORMATS = List.of(MediaType.APPLICATION_CBOR,
+            new MediaType("application", "x-jackson-smile"));
+
+    private EntityTags() {
+    }
+
+    public static String of(Object... parts) {
+        String key = Arrays.stream(parts)
+                .map(String::valueOf)
+                .collect(Collectors.joining("|"));
+        return "\"" + DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * ETag представления: те же строки в JSON, CBOR и Smile - разные байты, поэтому в ETag
+     * входит формат, выбранный по Accept. Ответы с ETag отдаются с Vary: Accept (WireFormatConfig).
+     */
+    public static String ofRepresentation(WebRequest request, Object... parts) {
+        Object[] withFormat = Arrays.copyOf(parts, parts.length + 1);
+        withFormat[parts.length] = format(request.getHeader(HttpHeaders.ACCEPT));
+        return of(withFormat);
+    }
+
+    /**
+     * Формат, который выберет согласование содержимого: первый по качеству тип из Accept,
+     * совместимый с JSON (в том числе *&#47;*) или с одним из двоичных форматов.
+     */
+    static String format(String accept) {
+        if (accept == null) {
+            return JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType type : accepted) {
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return JSON;
+            }
+            for (MediaType binary : BINARY_FORMATS) {
+                if (type.isCompatibleWith(binary)) {
+                    return binary.getSubtype();
+                }
+            }
+        }
+        return JSON;
+    }
+}
@@ -0,0 +1,4 @@
+package ru.practicum.shareit.etag;
+
+public record ItemRowVersion(Long id, Long version) {
+}
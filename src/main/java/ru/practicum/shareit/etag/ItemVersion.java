@@ -0,0 +1,4 @@
+package ru.practicum.shareit.etag;
+
+public record ItemVersion(Long ownerId, Long version) {
+}
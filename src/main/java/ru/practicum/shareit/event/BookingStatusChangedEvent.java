@@ -0,0 +1,7 @@
+package ru.practicum.shareit.event;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+public record BookingStatusChangedEvent(Long bookingId, Long itemId, Long bookerId, Long ownerId,
+                                        BookingStatus status) implements DomainEvent {
+}
@@ -0,0 +1,4 @@
+package ru.practicum.shareit.event;
+
+public record CommentAddedEvent(Long commentId, Long itemId, Long authorId, Long ownerId) implements DomainEvent {
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.event;
+
+/**
+ * Событие предметной области. Публикуется через DomainEventPublisher в той же транзакции,
+ * что и изменение, и доставляется слушателям @EventListener асинхронно, не реже одного раза.
+ */
+public sealed interface DomainEvent permits BookingStatusChangedEvent, CommentAddedEvent {
+}
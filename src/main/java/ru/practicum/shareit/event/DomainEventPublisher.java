@@ -0,0 +1,59 @@
+package ru.practicum.shareit.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exceptions.InternalServerException;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Записывает события в outbox_events. Вызывается только внутри транзакции изменения,
+ * поэтому событие сохраняется тогда и только тогда, когда зафиксировано само изменение.
+ */
+@Component
+@RequiredArgsConstructor
+public class DomainEventPublisher {
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final OutboxDispatcher outboxDispatcher;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(DomainEvent event) {
+        publishAll(List.of(event));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishAll(Collection<? extends DomainEvent> events) {
+        LocalDateTime now = LocalDateTime.now();
+        outboxEventRepository.saveAll(events.stream()
+                .map(event -> OutboxEvent.builder()
+                        .eventType(event.getClass().getSimpleName())
+                        .payload(serialize(event))
+                        .createdAt(now)
+                        .availableAt(now)
+                        .build())
+                .toList());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                outboxDispatcher.signal();
+            }
+        });
+    }
+
+    private String serialize(DomainEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new InternalServerException("Не удалось сериализовать событие " + event.getClass().getSimpleName());
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package ru.practicum.shareit.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Доставляет события из outbox_events слушателям @EventListener.
+ * Собственный поток диспетчера раз в poll-interval забирает события пачками по batch-size,
+ * поэтому всплеск записей копится в таблице, а не в памяти, а медленный слушатель задерживает
+ * только следующие события, но не запросы и не задачи общего планировщика @Scheduled.
+ * Таблица читается после фиксации транзакции с событиями (сигнал от DomainEventPublisher) и раз в recheck-interval - для отложенных повторов
+ * и событий, записанных другими экземплярами. Пачка забирается в аренду на lease: строки
+ * помечаются токеном экземпляра, и другие экземпляры их не выбирают, пока аренда не истекла.
+ * Каждое событие получает ровно один экземпляр, поэтому через outbox идёт только работа,
+ * которую достаточно выполнить один раз; локальные кэши сбрасываются в самой транзакции.
+ * Когда аренда пачки истекает, остаток пачки не доставляется: его заберёт следующий проход.
+ * Строка удаляется только после успешной доставки: при сбое (в том числе падении экземпляра
+ * с арендованными строками) событие придёт повторно, и слушатели должны быть идемпотентными.
+ * Неудачная доставка откладывается с экспоненциальной задержкой; после max-attempts попыток
+ * событие помечается dead_at, остаётся в таблице для разбора и больше не выбирается.
+ */
+@Slf4j
+@Component
+public class OutboxDispatcher {
+    private static final Duration MAX_RETRY_DELAY = Duration.ofMinutes(5);
+    private static final Map<String, Class<?>> EVENT_TYPES = Arrays.stream(DomainEvent.class.getPermittedSubclasses())
+            .collect(Collectors.toMap(Class::getSimpleName, Function.identity()));
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration recheckInterval;
+    private final Duration pollInterval;
+    private final Duration lease;
+    private final int maxAttempts;
+
+    private final ScheduledExecutorService executor =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("outbox-dispatcher-"));
+    private final Lock dispatchLock = new ReentrantLock();
+    private final AtomicBoolean signalled = new AtomicBoolean();
+    private volatile LocalDateTime nextRecheck = LocalDateTime.MIN;
+
+    private final AtomicLong depth = new AtomicLong();
+    private final AtomicLong oldestAgeSeconds = new AtomicLong();
+    private final AtomicLong dead = new AtomicLong();
+    private final Timer lag;
+    private final Counter failures;
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository,
+                            ApplicationEventPublisher applicationEventPublisher,
+                            ObjectMapper objectMapper,
+                            TransactionTemplate transactionTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${shareit.outbox.batch-size:100}") int batchSize,
+                            @Value("${shareit.outbox.poll-interval:PT0.2S}") Duration pollInterval,
+                            @Value("${shareit.outbox.recheck-interval:PT30S}") Duration recheckInterval,
+                            @Value("${shareit.outbox.lease:PT1M}") Duration lease,
+                            @Value("${shareit.outbox.max-attempts:10}") int maxAttempts) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.recheckInterval = recheckInterval;
+        this.pollInterval = pollInterval;
+        this.lease = lease;
+        this.maxAttempts = maxAttempts;
+        Gauge.builder("shareit.outbox.depth", depth, AtomicLong::get)
+                .description("События в outbox, ожидающие доставки")
+                .register(meterRegistry);
+        Gauge.builder("shareit.outbox.oldest.age", oldestAgeSeconds, AtomicLong::get)
+                .description("Возраст самого старого недоставленного события")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("shareit.outbox.dead", dead, AtomicLong::get)
+                .description("События, исчерпавшие попытки доставки")
+                .register(meterRegistry);
+        this.lag = Timer.builder("shareit.outbox.lag")
+                .description("Время от записи события до его доставки")
+                .register(meterRegistry);
+        this.failures = Counter.builder("shareit.outbox.failures")
+                .description("Неудачные попытки доставки событий")
+                .register(meterRegistry);
+    }
+
+    public void signal() {
+        signalled.set(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        signal();
+        executor.scheduleWithFixedDelay(this::dispatchSafely, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(lease.toMillis(), TimeUnit.MILLISECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Один проход диспетчера. Если проход уже идёт в другом потоке, вызов ничего не делает:
+     * сигнал не сбрасывается, и его подхватит следующий проход.
+     */
+    public void dispatch() {
+        if (!dispatchLock.tryLock()) {
+            return;
+        }
+        try {
+            if (!signalled.getAndSet(false) && nextRecheck.isAfter(LocalDateTime.now())) {
+                return;
+            }
+            nextRecheck = LocalDateTime.now().plus(recheckInterval);
+            List<OutboxEvent> batch;
+            do {
+                batch = claimBatch();
+                deliver(batch);
+            } while (batch.size() == batchSize);
+            refreshGauges();
+        } finally {
+            dispatchLock.unlock();
+        }
+    }
+
+    private void dispatchSafely() {
+        try {
+            dispatch();
+        } catch (RuntimeException e) {
+            log.error("Проход диспетчера outbox завершился ошибкой: {}", e.getMessage(), e);
+        }
+    }
+
+    private List<OutboxEvent> claimBatch() {
+        String token = UUID.randomUUID().toString();
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = outboxEventRepository.findAvailableIds(now, Limit.of(batchSize));
+            if (ids.isEmpty() || outboxEventRepository.claim(ids, token, now, now.plus(lease)) == 0) {
+                return List.of();
+            }
+            return outboxEventRepository.findByClaimTokenOrderByIdAsc(token);
+        });
+    }
+
+    private void deliver(List<OutboxEvent> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Long> delivered = new ArrayList<>(batch.size());
+        List<OutboxEvent> failed = new ArrayList<>();
+        LocalDateTime leaseUntil = batch.getFirst().getAvailableAt();
+        for (OutboxEvent event : batch) {
+            if (LocalDateTime.now().isAfter(leaseUntil)) {
+                log.warn("Аренда пачки outbox истекла, {} событий будут доставлены повторно.",
+                        batch.size() - delivered.size() - failed.size());
+                break;
+            }
+            try {
+                applicationEventPublisher.publishEvent(deserialize(event));
+                delivered.add(event.getId());
+                lag.record(Duration.between(event.getCreatedAt(), LocalDateTime.now()));
+            } catch (RuntimeException e) {
+                log.warn("Не удалось доставить событие {} ({}), попытка {}: {}", event.getId(), event.getEventType(),
+                        event.getAttempts() + 1, e.getMessage());
+                failed.add(event);
+                failures.increment();
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!delivered.isEmpty()) {
+                outboxEventRepository.deleteAllByIdInBatch(delivered);
+            }
+            LocalDateTime now = LocalDateTime.now();
+            for (OutboxEvent event : failed) {
+                int attempts = event.getAttempts() + 1;
+                if (attempts >= maxAttempts) {
+                    log.error("Событие {} ({}) не доставлено за {} попыток и исключено из доставки.",
+                            event.getId(), event.getEventType(), attempts);
+                    outboxEventRepository.bury(event.getId(), now);
+                } else {
+                    outboxEventRepository.postpone(event.getId(), now.plus(retryDelay(attempts)));
+                }
+            }
+        });
+    }
+
+    private Object deserialize(OutboxEvent event) {
+        Class<?> type = EVENT_TYPES.get(event.getEventType());
+        if (type == null) {
+            throw new IllegalStateException("Неизвестный тип события " + event.getEventType());
+        }
+        try {
+            return objectMapper.readValue(event.getPayload(), type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Повреждённое событие " + event.getId(), e);
+        }
+    }
+
+    private void refreshGauges() {
+        depth.set(outboxEventRepository.countByDeadAtIsNull());
+        dead.set(outboxEventRepository.countByDeadAtIsNotNull());
+        oldestAgeSeconds.set(outboxEventRepository.findFirstByDeadAtIsNullOrderByIdAsc()
+                .map(event -> Duration.between(event.getCreatedAt(), LocalDateTime.now()).toSeconds())
+                .orElse(0L));
+    }
+
+    private static Duration retryDelay(int attempts) {
+        Duration delay = Duration.ofSeconds(1L << Math.min(attempts, 16));
+        return delay.compareTo(MAX_RETRY_DELAY) > 0 ? MAX_RETRY_DELAY : delay;
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.event;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query("select e.id from OutboxEvent e where e.availableAt <= :now and e.deadAt is null order by e.id")
+    List<Long> findAvailableIds(@Param("now") LocalDateTime now, Limit limit);
+
+    /**
+     * Забирает строки в аренду до leaseUntil. Условие повторяет выборку кандидатов, поэтому
+     * из двух экземпляров, выбравших одни и те же строки, строку получает только первый:
+     * у второго UPDATE после ожидания блокировки строки видит уже сдвинутый available_at.
+     */
+    @Modifying
+    @Query("update OutboxEvent e set e.claimToken = :token, e.availableAt = :leaseUntil " +
+            "where e.id in :ids and e.availableAt <= :now and e.deadAt is null")
+    int claim(@Param("ids") Collection<Long> ids,
+              @Param("token") String token,
+              @Param("now") LocalDateTime now,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    List<OutboxEvent> findByClaimTokenOrderByIdAsc(String claimToken);
+
+    long countByDeadAtIsNull();
+
+    long countByDeadAtIsNotNull();
+
+    Optional<OutboxEvent> findFirstByDeadAtIsNullOrderByIdAsc();
+
+    @Modifying
+    @Query("update OutboxEvent e set e.attempts = e.attempts + 1, e.availableAt = :availableAt, " +
+            "e.claimToken = null where e.id = :id")
+    int postpone(@Param("id") Long id, @Param("availableAt") LocalDateTime availableAt);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.attempts = e.attempts + 1, e.deadAt = :deadAt, " +
+            "e.claimToken = null where e.id = :id")
+    int bury(@Param("id") Long id, @Param("deadAt") LocalDateTime deadAt);
+}
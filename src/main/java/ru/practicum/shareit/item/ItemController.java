@@ -1,15 +1,37 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.etag.EntityTags;
+import ru.practicum.shareit.item.bulk.ItemImportReader;
 import ru.practicum.shareit.item.comment.CommentDto;
 import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
+import ru.practicum.shareit.item.dto.NormalizedItemsDto;
 import ru.practicum.shareit.item.dto.UpdateItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.search.ItemSort;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.ratelimit.LongRunning;
+import ru.practicum.shareit.ratelimit.RateLimited;
+import ru.practicum.shareit.streaming.JsonStreamWriter;
+import ru.practicum.shareit.user.service.UserService;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.Collection;
 import java.util.List;
 
@@ -21,15 +43,38 @@ import java.util.List;
 public class ItemController {
 
     private final ItemService itemService;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
     private static final String USER_ID = "X-Sharer-User-Id";
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String CSV = "text/csv";
+    private static final int DEFAULT_AVAILABILITY_DAYS = 30;
+    private static final String NORMALIZED = "normalized";
+    private static final int MAX_TRENDING_SIZE = 100;
 
     @PostMapping
     @Validated
+    @RateLimited("add-item")
     public CreateItemDto addItem(@RequestHeader(USER_ID) Long userId,
                                  @Valid @RequestBody CreateItemDto createItemDto) {
         return itemService.addItem(userId, createItemDto);
     }
 
+    @PostMapping(path = "/bulk", consumes = NDJSON)
+    @RateLimited("import-items")
+    @LongRunning
+    public ItemImportResultDto importItemsFromNdjson(@RequestHeader(USER_ID) Long userId, InputStream body) {
+        return itemService.importItems(userId, ItemImportReader.ndjson(body, objectMapper));
+    }
+
+    @PostMapping(path = "/bulk", consumes = CSV)
+    @RateLimited("import-items")
+    @LongRunning
+    public ItemImportResultDto importItemsFromCsv(@RequestHeader(USER_ID) Long userId,
+                                                  InputStream body) throws IOException {
+        return itemService.importItems(userId, ItemImportReader.csv(body));
+    }
+
     @PatchMapping("/{itemId}")
     public CreateItemDto updateItem(@RequestHeader(USER_ID) Long userId,
                                     @PathVariable Long itemId,
@@ -39,21 +84,78 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ItemWithBookingDto getItemById(@PathVariable Long itemId) {
-        return itemService.getItemById(itemId);
+    public ItemWithBookingDto getItemById(@PathVariable Long itemId,
+                                          @RequestHeader(value = USER_ID, required = false) Long userId,
+                                          WebRequest request) {
+        if (request.checkNotModified(EntityTags.ofRepresentation(request,
+                itemService.getItemETag(itemId, userId)))) {
+            return null;
+        }
+        return itemService.getItemById(itemId, userId);
     }
 
     @GetMapping
-    public Collection<ItemWithBookingDto> getAllItemsByUserId(@RequestHeader(USER_ID) Long userId) {
+    public Collection<ItemWithBookingDto> getAllItemsByUserId(@RequestHeader(USER_ID) Long userId,
+                                                              WebRequest request) {
+        if (request.checkNotModified(EntityTags.ofRepresentation(request,
+                itemService.getOwnerItemsETag(userId)))) {
+            return null;
+        }
         return itemService.getAllItemsByOwnerId(userId);
     }
 
+    @GetMapping(path = "/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamItemsByUserId(@RequestHeader(USER_ID) Long userId) {
+        userService.getUserById(userId);
+        return JsonStreamWriter.ndjson(objectMapper,
+                writer -> itemService.streamItemsByOwnerId(userId, writer::writeChunk));
+    }
+
+    @GetMapping(params = "shape=normalized")
+    public NormalizedItemsDto getNormalizedItemsByUserId(@RequestHeader(USER_ID) Long userId, WebRequest request) {
+        if (request.checkNotModified(EntityTags.ofRepresentation(request, itemService.getOwnerItemsETag(userId),
+                NORMALIZED))) {
+            return null;
+        }
+        return ItemMapper.toNormalizedItems(itemService.getAllItemsByOwnerId(userId));
+    }
+
     @GetMapping("/search")
-    public List<CreateItemDto> getAvailableItemsByText(@RequestParam String text) {
-        return itemService.getAvailableItemsByText(text);
+    public List<CreateItemDto> getAvailableItemsByText(@RequestParam String text,
+                                                       @RequestParam(required = false)
+                                                       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                       @RequestParam(required = false)
+                                                       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                       @RequestParam(defaultValue = "RELEVANCE") ItemSort sort) {
+        return itemService.getAvailableItemsByText(text, from, to, sort);
+    }
+
+    @GetMapping("/trending")
+    public List<CreateItemDto> getTrendingItems(@RequestParam(defaultValue = "10") @Positive
+                                                @Max(MAX_TRENDING_SIZE) int size) {
+        return itemService.getTrendingItems(size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getItemAvailability(@PathVariable Long itemId,
+                                                   @RequestParam(required = false)
+                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                   @RequestParam(required = false)
+                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate rangeFrom = from != null ? from : LocalDate.now();
+        LocalDate rangeTo = to != null ? to : rangeFrom.plusDays(DEFAULT_AVAILABILITY_DAYS - 1);
+        return itemService.getItemAvailability(itemId, rangeFrom, rangeTo);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public List<CommentDto> getItemComments(@PathVariable Long itemId,
+                                            @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                            @RequestParam(defaultValue = "10") @Positive int size) {
+        return itemService.getItemComments(itemId, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
+    @RateLimited("add-comment")
     public CommentDto addComment(@RequestHeader(USER_ID) Long userId,
                                  @PathVariable Long itemId,
                                  @RequestBody CommentDto commentDto) {
@@ -0,0 +1,6 @@
+package ru.practicum.shareit.item.availability;
+
+import java.time.LocalDate;
+
+public record DateRange(LocalDate from, LocalDate to) {
+}
@@ -0,0 +1,253 @@
+package ru.practicum.shareit.item.availability;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.overlap.BookedInterval;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Занятые дни вещей по подтверждённым бронированиям: бит i - день origin + i.
+ * День занят, если бронирование пересекает его хотя бы частично.
+ * Индекс полный: строится при старте и дополняется после коммита каждого подтверждения,
+ * поэтому поиск по периоду и календарь вещи отвечают из памяти, без обращения к БД.
+ * Подтверждённое бронирование пропадает только удалением (каскадом от пользователя или вещи):
+ * удалённые вещи убираются, а вещи, потерявшие бронирования, перечитываются из БД.
+ * Раз в сутки origin сдвигается на сегодня и прошедшие дни отбрасываются.
+ * Блокировка на запись нужна только этому сдвигу: он меняет нумерацию битов.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemAvailabilityIndex {
+    private final BookingRepository bookingRepository;
+
+    private final Map<Long, BitSet> busyDaysByItemId = new ConcurrentHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile LocalDate origin = LocalDate.now();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        LocalDate today = LocalDate.now();
+        List<BookedInterval> intervals = bookingRepository.findBookedIntervals(List.of(BookingStatus.APPROVED),
+                today.atStartOfDay());
+        lock.writeLock().lock();
+        try {
+            busyDaysByItemId.clear();
+            origin = today;
+            intervals.forEach(interval -> mark(interval.itemId(), interval.start(), interval.end()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Календарь занятости построен: {} бронирований, {} вещей.", intervals.size(),
+                busyDaysByItemId.size());
+    }
+
+    @Scheduled(cron = "${shareit.availability.rebase-cron:0 5 0 * * *}")
+    public void rebase() {
+        rebase(LocalDate.now());
+    }
+
+    /**
+     * Сдвигает origin на today: биты прошедших дней отбрасываются, вещи без занятых дней удаляются.
+     */
+    void rebase(LocalDate today) {
+        lock.writeLock().lock();
+        try {
+            int shift = toIndex(today);
+            if (shift <= 0) {
+                return;
+            }
+            busyDaysByItemId.replaceAll((itemId, busyDays) -> busyDays.get(shift, Math.max(shift, busyDays.length())));
+            busyDaysByItemId.values().removeIf(BitSet::isEmpty);
+            origin = today;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Календарь занятости сдвинут на {}: {} вещей.", today, busyDaysByItemId.size());
+    }
+
+    public LocalDate getOrigin() {
+        return origin;
+    }
+
+    public void add(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        LocalDateTime start = booking.getStartDate();
+        LocalDateTime end = booking.getEndDate();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            markShared(itemId, start, end);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                markShared(itemId, start, end);
+            }
+        });
+    }
+
+    /**
+     * Вещи из itemIds, занятые хотя бы один день периода [from, to].
+     */
+    public Set<Long> findBusy(Collection<Long> itemIds, LocalDate from, LocalDate to) {
+        Set<Long> busy = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            int first = Math.max(0, toIndex(from));
+            int last = toIndex(to);
+            for (Long itemId : itemIds) {
+                BitSet busyDays = busyDaysByItemId.get(itemId);
+                if (busyDays == null) {
+                    continue;
+                }
+                synchronized (busyDays) {
+                    int day = busyDays.nextSetBit(first);
+                    if (day >= 0 && day <= last) {
+                        busy.add(itemId);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return busy;
+    }
+
+    /**
+     * Свободные промежутки вещи внутри периода [from, to], границы включительно.
+     */
+    public List<DateRange> findFreeRanges(Long itemId, LocalDate from, LocalDate to) {
+        List<DateRange> ranges = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            BitSet busyDays = busyDaysByItemId.get(itemId);
+            if (busyDays == null) {
+                ranges.add(new DateRange(from, to));
+                return ranges;
+            }
+            int last = toIndex(to);
+            synchronized (busyDays) {
+                int free = busyDays.nextClearBit(Math.max(0, toIndex(from)));
+                while (free <= last) {
+                    int busy = busyDays.nextSetBit(free);
+                    int freeEnd = busy < 0 || busy > last ? last : busy - 1;
+                    ranges.add(new DateRange(origin.plusDays(free), origin.plusDays(freeEnd)));
+                    if (freeEnd == last) {
+                        break;
+                    }
+                    free = busyDays.nextClearBit(busy);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return ranges;
+    }
+
+    /**
+     * Удаляет вещи из индекса после коммита транзакции, в которой они удалены.
+     */
+    public void removeAll(Collection<Long> itemIds) {
+        afterCommit(itemIds, () -> itemIds.forEach(busyDaysByItemId::remove));
+    }
+
+    /**
+     * После коммита перечитывает занятость вещей, потерявших бронирования каскадом от удалённого
+     * пользователя. Чтение из БД идёт под монитором битового набора вещи, поэтому подтверждение,
+     * закоммиченное одновременно, либо уже видно в БД, либо отмечается после перечитывания.
+     */
+    public void reloadAll(Collection<Long> itemIds) {
+        afterCommit(itemIds, () -> itemIds.forEach(this::reload));
+    }
+
+    private void reload(Long itemId) {
+        lock.readLock().lock();
+        try {
+            BitSet busyDays = busyDaysByItemId.computeIfAbsent(itemId, id -> new BitSet());
+            synchronized (busyDays) {
+                busyDays.clear();
+                for (BookedInterval interval : bookingRepository.findBookedIntervalsByItemId(itemId,
+                        List.of(BookingStatus.APPROVED), origin.atStartOfDay())) {
+                    set(busyDays, interval.start(), interval.end());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void afterCommit(Collection<Long> itemIds, Runnable action) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void markShared(Long itemId, LocalDateTime start, LocalDateTime end) {
+        lock.readLock().lock();
+        try {
+            mark(itemId, start, end);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void mark(Long itemId, LocalDateTime start, LocalDateTime end) {
+        if (lastDay(end).isBefore(origin)) {
+            return;
+        }
+        BitSet busyDays = busyDaysByItemId.computeIfAbsent(itemId, id -> new BitSet());
+        synchronized (busyDays) {
+            set(busyDays, start, end);
+        }
+    }
+
+    private void set(BitSet busyDays, LocalDateTime start, LocalDateTime end) {
+        LocalDate lastDay = lastDay(end);
+        if (lastDay.isBefore(origin)) {
+            return;
+        }
+        busyDays.set(Math.max(0, toIndex(start.toLocalDate())), toIndex(lastDay) + 1);
+    }
+
+    private static LocalDate lastDay(LocalDateTime end) {
+        return end.toLocalTime().equals(LocalTime.MIDNIGHT)
+                ? end.toLocalDate().minusDays(1)
+                : end.toLocalDate();
+    }
+
+    private int toIndex(LocalDate day) {
+        return Math.toIntExact(day.toEpochDay() - origin.toEpochDay());
+    }
+}
@@ -0,0 +1,135 @@
+package ru.practicum.shareit.item.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Построчно читает вещи из NDJSON или CSV с заголовком name,description,available
+ * и необязательной колонкой requestId.
+ * В памяти держится только текущая строка; номер строки считается от начала файла.
+ */
+public final class ItemImportReader {
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+    private static final CsvSchema CSV_SCHEMA = CsvSchema.emptySchema().withHeader();
+
+    private ItemImportReader() {
+    }
+
+    public static Stream<ItemImportRow> ndjson(InputStream body, ObjectMapper objectMapper) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        AtomicLong lineNumber = new AtomicLong();
+        return reader.lines()
+                .map(line -> parseJson(lineNumber.incrementAndGet(), line, objectMapper))
+                .filter(Objects::nonNull);
+    }
+
+    public static Stream<ItemImportRow> csv(InputStream body) throws IOException {
+        MappingIterator<Map<String, String>> rows = CSV_MAPPER.readerForMapOf(String.class)
+                .with(CSV_SCHEMA)
+                .readValues(new InputStreamReader(body, StandardCharsets.UTF_8));
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new CsvRows(rows), Spliterator.ORDERED),
+                false);
+    }
+
+    private static ItemImportRow parseJson(long lineNumber, String line, ObjectMapper objectMapper) {
+        if (line.isBlank()) {
+            return null;
+        }
+        try {
+            return new ItemImportRow(lineNumber, objectMapper.readValue(line, CreateItemDto.class), null);
+        } catch (JsonProcessingException e) {
+            return new ItemImportRow(lineNumber, null, "Некорректный JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private static ItemImportRow toRow(long rowNumber, Map<String, String> row) {
+        String available = row.get("available");
+        Boolean parsedAvailable = null;
+        if (available != null && !available.isBlank()) {
+            if ("true".equalsIgnoreCase(available.trim())) {
+                parsedAvailable = true;
+            } else if ("false".equalsIgnoreCase(available.trim())) {
+                parsedAvailable = false;
+            } else {
+                return new ItemImportRow(rowNumber, null, "Поле available должно быть true или false.");
+            }
+        }
+        String requestId = row.get("requestId");
+        Long parsedRequestId = null;
+        if (requestId != null && !requestId.isBlank()) {
+            try {
+                parsedRequestId = Long.valueOf(requestId.trim());
+            } catch (NumberFormatException e) {
+                return new ItemImportRow(rowNumber, null, "Поле requestId должно быть числом.");
+            }
+        }
+        return new ItemImportRow(rowNumber, CreateItemDto.builder()
+                .name(row.get("name"))
+                .description(row.get("description"))
+                .available(parsedAvailable)
+                .requestId(parsedRequestId)
+                .build(), null);
+    }
+
+    private static final class CsvRows implements Iterator<ItemImportRow> {
+        private final MappingIterator<Map<String, String>> rows;
+        private long rowNumber = 1;
+        private ItemImportRow next;
+        private boolean finished;
+
+        private CsvRows(MappingIterator<Map<String, String>> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !finished) {
+                next = readNext();
+            }
+            return next != null;
+        }
+
+        @Override
+        public ItemImportRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ItemImportRow row = next;
+            next = null;
+            return row;
+        }
+
+        private ItemImportRow readNext() {
+            try {
+                if (!rows.hasNextValue()) {
+                    finished = true;
+                    return null;
+                }
+                rowNumber++;
+                return toRow(rowNumber, rows.nextValue());
+            } catch (IOException | RuntimeException e) {
+                finished = true;
+                return new ItemImportRow(rowNumber, null, "Некорректный CSV, импорт остановлен: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.item.bulk;
+
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Итоги импорта. Сохраняет не больше MAX_REPORTED_ERRORS ошибок, остальные только считает.
+ */
+public class ItemImportReport {
+    public static final int MAX_REPORTED_ERRORS = 100;
+
+    private long imported;
+    private long failed;
+    private final List<ItemImportErrorDto> errors = new ArrayList<>();
+
+    public void imported(int count) {
+        imported += count;
+    }
+
+    public void failed(long rowNumber, String error) {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new ItemImportErrorDto(rowNumber, error));
+        }
+    }
+
+    public ItemImportResultDto toDto() {
+        return ItemImportResultDto.builder()
+                .imported(imported)
+                .failed(failed)
+                .errors(errors)
+                .build();
+    }
+}
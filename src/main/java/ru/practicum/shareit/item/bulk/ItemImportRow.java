@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.bulk;
+
+import ru.practicum.shareit.item.dto.CreateItemDto;
+
+/**
+ * Строка импорта: либо разобранная вещь, либо ошибка разбора.
+ */
+public record ItemImportRow(long rowNumber, CreateItemDto item, String error) {
+}
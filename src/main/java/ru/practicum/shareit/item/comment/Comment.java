@@ -24,15 +24,19 @@ public class Comment {
     @Column(name = "text", nullable = false)
     private String text;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id", nullable = false)
     private Item item;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id", nullable = false)
     private User author;
 
     @Column(name = "date_created", nullable = false)
     private LocalDateTime dateCreated;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
 
@@ -1,14 +1,36 @@
 package ru.practicum.shareit.item.comment;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    List<Comment> findByItemId(Long itemId);
+    @EntityGraph(attributePaths = "author")
+    Window<Comment> findByItemIdOrderByDateCreatedDescIdDesc(Long itemId, ScrollPosition position, Limit limit);
 
-    List<Comment> findByItemIdIn(List<Long> itemIds);
+    @Query(value = "select t.item_id as itemId, t.id as id, t.text as text, t.author_name as authorName, " +
+            "t.date_created as created " +
+            "from (select c.item_id, c.id, c.text, u.name as author_name, c.date_created, " +
+            "row_number() over (partition by c.item_id order by c.date_created desc, c.id desc) as rn " +
+            "from comments c join users u on u.id = c.author_id where c.item_id in (:itemIds)) t " +
+            "where t.rn <= :limit order by t.item_id, t.rn", nativeQuery = true)
+    List<CommentView> findLatestByItemIds(@Param("itemIds") Collection<Long> itemIds, @Param("limit") int limit);
+
+    @Query(value = "select t.id as id, t.version as version, t.author_version as authorVersion " +
+            "from (select c.item_id, c.id, c.version, u.version as author_version, " +
+            "row_number() over (partition by c.item_id order by c.date_created desc, c.id desc) as rn " +
+            "from comments c join users u on u.id = c.author_id where c.item_id in (:itemIds)) t " +
+            "where t.rn <= :limit order by t.item_id, t.rn", nativeQuery = true)
+    List<CommentVersion> findLatestVersionsByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                                     @Param("limit") int limit);
 }
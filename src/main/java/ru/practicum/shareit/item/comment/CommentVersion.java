@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.comment;
+
+public interface CommentVersion {
+    Long getId();
+
+    Long getVersion();
+
+    Long getAuthorVersion();
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.comment;
+
+import java.time.LocalDateTime;
+
+public interface CommentView {
+    Long getItemId();
+
+    Long getId();
+
+    String getText();
+
+    String getAuthorName();
+
+    LocalDateTime getCreated();
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.comment;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ItemCommentSummaryRepository extends JpaRepository<ItemCommentSummary, Long> {
+
+    @Modifying
+    @Query("update ItemCommentSummary s set s.commentCount = s.commentCount + 1 where s.itemId = :itemId")
+    int incrementCommentCount(@Param("itemId") Long itemId);
+}
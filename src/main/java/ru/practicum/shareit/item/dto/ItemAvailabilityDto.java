@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.item.availability.DateRange;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+public class ItemAvailabilityDto {
+    private Long itemId;
+    private LocalDate from;
+    private LocalDate to;
+    private List<DateRange> free;
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.item.dto;
+
+/**
+ * Неизменяемый снимок вещи для кэша "items": экземпляр общий для всех потоков.
+ */
+public record ItemSummaryDto(Long id, String name, String description, Boolean available, Long ownerId,
+                             Long requestId) {
+}
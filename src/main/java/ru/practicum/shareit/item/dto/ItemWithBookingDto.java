@@ -18,6 +18,7 @@ public class ItemWithBookingDto {
     private Boolean available;
     private BookingDto lastBooking;
     private BookingDto nextBooking;
+    private Long commentCount;
     private List<CommentDto> comments;
 
 }
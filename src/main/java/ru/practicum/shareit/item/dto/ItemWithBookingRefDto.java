@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.item.comment.CommentDto;
+
+import java.util.List;
+
+@Data
+@Builder
+public class ItemWithBookingRefDto {
+    private Long id;
+    private String name;
+    private String description;
+    private Boolean available;
+    private Long lastBookingId;
+    private Long nextBookingId;
+    private Long commentCount;
+    private List<CommentDto> comments;
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.booking.dto.BookingRefDto;
+import ru.practicum.shareit.user.dto.CreateUserDto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Вещи владельца со ссылками на последнее и следующее бронирование; бронирования и арендаторы
+ * передаются один раз в bookings и users.
+ */
+@Data
+@Builder
+public class NormalizedItemsDto {
+    private List<ItemWithBookingRefDto> items;
+    private Map<Long, BookingRefDto> bookings;
+    private Map<Long, CreateUserDto> users;
+}
@@ -1,16 +1,27 @@
 package ru.practicum.shareit.item.mapper;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingRefDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.CommentDto;
+import ru.practicum.shareit.item.comment.CommentView;
 import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.ItemSummaryDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingRefDto;
+import ru.practicum.shareit.item.dto.NormalizedItemsDto;
 import ru.practicum.shareit.item.dto.UpdateItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.IndexedItem;
+import ru.practicum.shareit.user.dto.CreateUserDto;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class ItemMapper {
     private ItemMapper() {
@@ -29,6 +40,24 @@ public class ItemMapper {
                 .build();
     }
 
+    public static ItemSummaryDto toItemSummary(Item item) {
+        return new ItemSummaryDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                item.getOwner().getId(), item.getRequest() != null ? item.getRequest().getId() : null);
+    }
+
+    public static CreateItemDto toItemDto(IndexedItem item) {
+        if (item == null) {
+            return null;
+        }
+        return CreateItemDto.builder()
+                .id(item.id())
+                .name(item.name())
+                .description(item.description())
+                .available(item.available())
+                .requestId(item.requestId())
+                .build();
+    }
+
     public static Item toItem(CreateItemDto createItemDto, User owner) {
         if (createItemDto == null) {
             return null;
@@ -78,8 +107,21 @@ public class ItemMapper {
                 .build();
     }
 
+    public static CommentDto toCommentDto(CommentView comment) {
+        if (comment == null) {
+            return null;
+        }
+        return CommentDto.builder()
+                .id(comment.getId())
+                .text(comment.getText())
+                .authorName(comment.getAuthorName())
+                .created(comment.getCreated())
+                .build();
+    }
+
     public static ItemWithBookingDto toItemWithBookingDto(Item item, BookingDto lastBooking,
-                                                    BookingDto nextBooking, List<CommentDto> comments) {
+                                                    BookingDto nextBooking, long commentCount,
+                                                    List<CommentDto> comments) {
         ItemWithBookingDto dto = new ItemWithBookingDto();
         dto.setId(item.getId());
         dto.setName(item.getName());
@@ -87,7 +129,41 @@ public class ItemMapper {
         dto.setAvailable(item.getAvailable());
         dto.setLastBooking(lastBooking);
         dto.setNextBooking(nextBooking);
+        dto.setCommentCount(commentCount);
         dto.setComments(comments);
         return dto;
     }
+
+    public static NormalizedItemsDto toNormalizedItems(List<ItemWithBookingDto> items) {
+        Map<Long, BookingRefDto> bookings = new LinkedHashMap<>();
+        Map<Long, CreateUserDto> users = new LinkedHashMap<>();
+        List<ItemWithBookingRefDto> refs = new ArrayList<>(items.size());
+        for (ItemWithBookingDto item : items) {
+            refs.add(ItemWithBookingRefDto.builder()
+                    .id(item.getId())
+                    .name(item.getName())
+                    .description(item.getDescription())
+                    .available(item.getAvailable())
+                    .lastBookingId(addBookingRef(item.getLastBooking(), bookings, users))
+                    .nextBookingId(addBookingRef(item.getNextBooking(), bookings, users))
+                    .commentCount(item.getCommentCount())
+                    .comments(item.getComments())
+                    .build());
+        }
+        return NormalizedItemsDto.builder()
+                .items(refs)
+                .bookings(bookings)
+                .users(users)
+                .build();
+    }
+
+    private static Long addBookingRef(BookingDto booking, Map<Long, BookingRefDto> bookings,
+                                      Map<Long, CreateUserDto> users) {
+        if (booking == null) {
+            return null;
+        }
+        bookings.putIfAbsent(booking.getId(), BookingMapper.toBookingRefDto(booking));
+        users.putIfAbsent(booking.getBooker().getId(), booking.getBooker());
+        return booking.getId();
+    }
 }
@@ -0,0 +1,237 @@
+package ru.practicum.shareit.item.popularity;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.event.BookingStatusChangedEvent;
+import ru.practicum.shareit.event.CommentAddedEvent;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Популярность вещей: затухающая сумма подтверждённых бронирований и отзывов.
+ * Обновляется событиями из outbox в потоке диспетчера, вне запроса; сортировка поиска и
+ * GET /items/trending обращаются только к памяти. Событие, доставленное повторно после
+ * сбоя, учитывается дважды: для ранжирования это допустимо.
+ * Каждое событие обрабатывает один экземпляр, поэтому контрольная точка раз в checkpoint-interval
+ * не перезаписывает item_popularity своими оценками, а прибавляет к строкам накопленные с прошлой
+ * точки приращения (score = score * затухание + приращение) и перечитывает общие оценки; приращения,
+ * пришедшие во время записи, добавляются поверх. События после последней контрольной точки
+ * при перезапуске теряются. Удалённые вещи убираются из памяти после коммита, а их строки
+ * item_popularity - каскадом; контрольная точка пишет только существующие вещи, поэтому вещь,
+ * удалённая между снятием приращений и записью, пропускается.
+ */
+@Slf4j
+@Component
+public class ItemPopularityIndex {
+    public static final double BOOKING_WEIGHT = 1.0;
+    public static final double COMMENT_WEIGHT = 0.5;
+    private static final int CHECKPOINT_BATCH_SIZE = 1000;
+    private static final double MIN_DECAY_EXPONENT = -64;
+
+    private static final String ADD_DELTA = "UPDATE item_popularity SET score = score * EXP(GREATEST(? * "
+            + "(EXTRACT(EPOCH FROM updated_at) - EXTRACT(EPOCH FROM CAST(? AS TIMESTAMP))), ?)) + ?, "
+            + "updated_at = ? WHERE item_id = ?";
+    private static final String INSERT_DELTA = "INSERT INTO item_popularity (item_id, score, updated_at) "
+            + "SELECT ?, ?, ? FROM items WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final double decayPerSecond;
+    private final PopularityScores scores;
+    private final PopularityScores pending;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ItemPopularityIndex(JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${shareit.popularity.half-life:P7D}") Duration halfLife) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.decayPerSecond = Math.log(2) / halfLife.toSeconds();
+        this.scores = new PopularityScores(halfLife, System::currentTimeMillis);
+        this.pending = new PopularityScores(halfLife, System::currentTimeMillis);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        reload();
+        log.info("Оценки популярности вещей загружены: {} вещей.", scores.size());
+    }
+
+    @EventListener
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        if (event.status() == BookingStatus.APPROVED) {
+            add(event.itemId(), BOOKING_WEIGHT);
+        }
+    }
+
+    @EventListener
+    public void onCommentAdded(CommentAddedEvent event) {
+        add(event.itemId(), COMMENT_WEIGHT);
+    }
+
+    /**
+     * Удаляет вещи из оценок после коммита транзакции, в которой они удалены
+     * (каскадом при удалении владельца).
+     */
+    public void removeAll(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remove(itemIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remove(itemIds);
+            }
+        });
+    }
+
+    public double getScore(Long itemId) {
+        lock.readLock().lock();
+        try {
+            return scores.score(itemId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Стабильная сортировка по убыванию популярности: при равной оценке сохраняется исходный порядок.
+     */
+    public <T> List<T> sortByScore(List<T> items, ToLongFunction<T> itemId) {
+        double[] itemScores = new double[items.size()];
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < itemScores.length; i++) {
+                itemScores[i] = scores.score(itemId.applyAsLong(items.get(i)));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return IntStream.range(0, itemScores.length)
+                .boxed()
+                .sorted((left, right) -> Double.compare(itemScores[right], itemScores[left]))
+                .map(items::get)
+                .toList();
+    }
+
+    /**
+     * size самых популярных вещей; resolve возвращает null для вещей, которые не показываются.
+     */
+    public <T> List<T> findTop(int size, LongFunction<T> resolve) {
+        lock.readLock().lock();
+        try {
+            return scores.top(size, resolve);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.popularity.checkpoint-interval:PT5M}",
+            initialDelayString = "${shareit.popularity.checkpoint-interval:PT5M}")
+    public void checkpoint() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> deltas = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            pending.forEach((itemId, delta) -> deltas.add(new Object[]{itemId, delta}));
+            pending.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int from = 0; from < deltas.size(); from += CHECKPOINT_BATCH_SIZE) {
+                    addDeltas(deltas.subList(from, Math.min(from + CHECKPOINT_BATCH_SIZE, deltas.size())), now);
+                }
+            });
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                deltas.forEach(delta -> pending.add((Long) delta[0], (Double) delta[1]));
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        reload();
+        log.debug("Контрольная точка популярности сохранена: {} вещей.", deltas.size());
+    }
+
+    private void addDeltas(List<Object[]> deltas, Timestamp now) {
+        int[] updated = jdbcTemplate.batchUpdate(ADD_DELTA, deltas.stream()
+                .map(delta -> new Object[]{decayPerSecond, now, MIN_DECAY_EXPONENT, delta[1], now, delta[0]})
+                .toList());
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                inserts.add(new Object[]{deltas.get(i)[0], deltas.get(i)[1], now, deltas.get(i)[0]});
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_DELTA, inserts);
+        }
+    }
+
+    /**
+     * Заменяет оценки в памяти общими оценками из item_popularity и добавляет поверх
+     * приращения, ещё не записанные этим экземпляром.
+     */
+    private void reload() {
+        List<Object[]> rows = jdbcTemplate.query("SELECT item_id, score, updated_at FROM item_popularity",
+                (rs, rowNum) -> new Object[]{rs.getLong("item_id"), rs.getDouble("score"),
+                        rs.getTimestamp("updated_at").getTime()});
+        lock.writeLock().lock();
+        try {
+            scores.clear();
+            rows.forEach(row -> scores.put((Long) row[0], (Double) row[1], (Long) row[2]));
+            pending.forEach(scores::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(Collection<Long> itemIds) {
+        lock.writeLock().lock();
+        try {
+            itemIds.forEach(itemId -> {
+                scores.remove(itemId);
+                pending.remove(itemId);
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(Long itemId, double weight) {
+        lock.writeLock().lock();
+        try {
+            scores.add(itemId, weight);
+            pending.add(itemId, weight);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package ru.practicum.shareit.item.popularity;
+
+import java.util.Arrays;
+
+/**
+ * Хеш-таблица long -> double с открытой адресацией и линейным пробированием, без упаковки
+ * ключей и значений в объекты. Ключ 0 зарезервирован под пустую ячейку. Не потокобезопасна.
+ */
+public class LongDoubleMap {
+    private static final int MIN_CAPACITY = 16;
+    private static final long EMPTY = 0L;
+
+    private long[] keys;
+    private double[] values;
+    private int size;
+
+    public LongDoubleMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public LongDoubleMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(MIN_CAPACITY, expectedSize * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new double[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double get(long key) {
+        int slot = find(key);
+        return keys[slot] == key ? values[slot] : 0.0;
+    }
+
+    public void put(long key, double value) {
+        int slot = insertionSlot(key);
+        values[slot] = value;
+    }
+
+    public double addTo(long key, double delta) {
+        int slot = insertionSlot(key);
+        values[slot] += delta;
+        return values[slot];
+    }
+
+    /**
+     * Умножает все значения на factor, ключи не меняются.
+     */
+    public void scale(double factor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                values[i] *= factor;
+            }
+        }
+    }
+
+    /**
+     * Удаляет ключ со сдвигом следующих за ним ячеек цепочки, чтобы поиск не обрывался на дыре.
+     */
+    public void remove(long key) {
+        int slot = find(key);
+        if (keys[slot] != key || key == EMPTY) {
+            return;
+        }
+        int mask = keys.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        values[hole] = 0.0;
+        size--;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(values, 0.0);
+        size = 0;
+    }
+
+    public void forEach(EntryConsumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    private int insertionSlot(long key) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Ключ 0 зарезервирован.");
+        }
+        int slot = find(key);
+        if (keys[slot] == key) {
+            return slot;
+        }
+        if ((size + 1) * 4 > keys.length * 3) {
+            grow();
+            slot = find(key);
+        }
+        keys[slot] = key;
+        size++;
+        return slot;
+    }
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        double[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new double[oldValues.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long key, double value);
+    }
+}
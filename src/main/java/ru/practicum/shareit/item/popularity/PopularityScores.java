@@ -0,0 +1,175 @@
+package ru.practicum.shareit.item.popularity;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * Экспоненциально затухающие счётчики: вклад события уменьшается вдвое за halfLife.
+ * Значения хранятся приведёнными к моменту epoch (вклад умножается на e^(λ(t - epoch))),
+ * поэтому добавление - одно сложение, а порядок вещей по оценке со временем не меняется.
+ * Когда множитель растёт слишком сильно, все значения пересчитываются к новому epoch.
+ * Не потокобезопасен.
+ */
+public class PopularityScores {
+    private static final double MAX_EXPONENT = 64;
+
+    private final double decayPerMilli;
+    private final LongSupplier clock;
+    private final LongDoubleMap scores = new LongDoubleMap();
+    private long epoch;
+
+    /**
+     * @param clock текущее время в миллисекундах
+     */
+    public PopularityScores(Duration halfLife, LongSupplier clock) {
+        this.decayPerMilli = Math.log(2) / halfLife.toMillis();
+        this.clock = clock;
+        this.epoch = clock.getAsLong();
+    }
+
+    public int size() {
+        return scores.size();
+    }
+
+    public void add(long itemId, double weight) {
+        scores.addTo(itemId, weight * growth());
+    }
+
+    /**
+     * Задаёт оценку вещи, которую она имела в момент at, например из контрольной точки.
+     */
+    public void put(long itemId, double score, long at) {
+        growth();
+        scores.put(itemId, score * Math.exp(exponent(at)));
+    }
+
+    public void remove(long itemId) {
+        scores.remove(itemId);
+    }
+
+    public double score(long itemId) {
+        return scores.get(itemId) * Math.exp(-exponent(clock.getAsLong()));
+    }
+
+    public void forEach(LongDoubleMap.EntryConsumer consumer) {
+        double decay = Math.exp(-exponent(clock.getAsLong()));
+        scores.forEach((itemId, value) -> consumer.accept(itemId, value * decay));
+    }
+
+    public void clear() {
+        scores.clear();
+        epoch = clock.getAsLong();
+    }
+
+    /**
+     * k вещей с наибольшей оценкой, по убыванию оценки. resolve возвращает вещь по идентификатору
+     * или null, если она не подходит; каждая вещь разрешается один раз.
+     * Отбор через кучу размера k с худшей из отобранных вещей в вершине: O(n log k) по времени и O(k) по памяти.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> top(int k, LongFunction<T> resolve) {
+        long[] heapIds = new long[k];
+        double[] heapValues = new double[k];
+        Object[] heapItems = new Object[k];
+        int[] heapSize = {0};
+        scores.forEach((itemId, value) -> {
+            if (heapSize[0] == k && (k == 0 || !isBefore(value, itemId, heapValues[0], heapIds[0]))) {
+                return;
+            }
+            T item = resolve.apply(itemId);
+            if (item == null) {
+                return;
+            }
+            if (heapSize[0] < k) {
+                heapIds[heapSize[0]] = itemId;
+                heapValues[heapSize[0]] = value;
+                heapItems[heapSize[0]] = item;
+                siftUp(heapIds, heapValues, heapItems, heapSize[0]++);
+            } else {
+                heapIds[0] = itemId;
+                heapValues[0] = value;
+                heapItems[0] = item;
+                siftDown(heapIds, heapValues, heapItems, k);
+            }
+        });
+        int size = heapSize[0];
+        Object[] result = new Object[size];
+        for (int i = size - 1; i >= 0; i--) {
+            result[i] = heapItems[0];
+            heapIds[0] = heapIds[i];
+            heapValues[0] = heapValues[i];
+            heapItems[0] = heapItems[i];
+            siftDown(heapIds, heapValues, heapItems, i);
+        }
+        return (List<T>) Arrays.asList(result);
+    }
+
+    private double growth() {
+        long now = clock.getAsLong();
+        double exponent = exponent(now);
+        if (exponent > MAX_EXPONENT) {
+            scores.scale(Math.exp(-exponent));
+            epoch = now;
+            return 1.0;
+        }
+        return Math.exp(exponent);
+    }
+
+    private double exponent(long now) {
+        return decayPerMilli * (now - epoch);
+    }
+
+    /**
+     * Порядок выдачи: большая оценка раньше, при равенстве - меньший идентификатор.
+     * Вершина кучи - последняя в этом порядке вещь.
+     */
+    private static boolean isBefore(double value, long itemId, double otherValue, long otherId) {
+        return value > otherValue || (value == otherValue && itemId < otherId);
+    }
+
+    private static void siftUp(long[] ids, double[] values, Object[] items, int index) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (!isBefore(values[parent], ids[parent], values[index], ids[index])) {
+                return;
+            }
+            swap(ids, values, items, index, parent);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(long[] ids, double[] values, Object[] items, int size) {
+        int index = 0;
+        while (true) {
+            int last = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && isBefore(values[last], ids[last], values[left], ids[left])) {
+                last = left;
+            }
+            if (right < size && isBefore(values[last], ids[last], values[right], ids[right])) {
+                last = right;
+            }
+            if (last == index) {
+                return;
+            }
+            swap(ids, values, items, index, last);
+            index = last;
+        }
+    }
+
+    private static void swap(long[] ids, double[] values, Object[] items, int i, int j) {
+        long id = ids[i];
+        ids[i] = ids[j];
+        ids[j] = id;
+        double value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+        Object item = items[i];
+        items[i] = items[j];
+        items[j] = item;
+    }
+}
@@ -1,21 +1,50 @@
 package ru.practicum.shareit.item.repository;
 
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.etag.ItemRowVersion;
+import ru.practicum.shareit.etag.ItemVersion;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.IndexedItem;
+import ru.practicum.shareit.request.repository.ItemAnswer;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
     List<Item> findAllByOwnerId(Long ownerId);
 
-    @Query(" select i from Item i " +
-            "where (upper(i.name) like upper(concat('%', ?1, '%')) " +
-            " or upper(i.description) like upper(concat('%', ?1, '%')))" +
-            "and i.available = true")
-    List<Item> getAvailableItemsByText(@Param("text") String text);
+    Stream<Item> streamAllByOwnerIdOrderByIdAsc(Long ownerId);
 
+    @Query("select i.id from Item i where i.owner.id = :ownerId")
+    List<Long> findIdsByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Item> findWithLockById(Long itemId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Item> findAllWithLockByIdInOrderByIdAsc(Collection<Long> itemIds);
+
+    @Query("select new ru.practicum.shareit.item.search.IndexedItem(i.id, i.name, i.description, i.available, r.id) " +
+            "from Item i left join i.request r")
+    List<IndexedItem> findAllForSearchIndex();
+
+
+    @Query("select new ru.practicum.shareit.request.repository.ItemAnswer(i.request.id, i.id, i.name, i.owner.id) " +
+            "from Item i where i.request.id in :requestIds order by i.id")
+    List<ItemAnswer> findAnswersByRequestIdIn(@Param("requestIds") Collection<Long> requestIds);
+
+    @Query("select new ru.practicum.shareit.etag.ItemVersion(i.owner.id, i.version) from Item i where i.id = :itemId")
+    Optional<ItemVersion> findVersionById(@Param("itemId") Long itemId);
+
+    @Query("select new ru.practicum.shareit.etag.ItemRowVersion(i.id, i.version) from Item i " +
+            "where i.owner.id = :ownerId order by i.id")
+    List<ItemRowVersion> findRowVersionsByOwnerId(@Param("ownerId") Long ownerId);
 }
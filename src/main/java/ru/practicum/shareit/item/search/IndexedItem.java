@@ -0,0 +1,4 @@
+package ru.practicum.shareit.item.search;
+
+public record IndexedItem(Long id, String name, String description, Boolean available, Long requestId) {
+}
@@ -0,0 +1,197 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Инвертированный индекс по названию и описанию вещей.
+ * Каждое слово запроса ищется как префикс слова вещи; вещь попадает в выдачу,
+ * только если совпали все слова запроса. Совпадение в названии весит больше,
+ * чем в описании, точное совпадение слова - больше, чем по префиксу.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSearchIndex {
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int NAME_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int EXACT_MATCH_FACTOR = 2;
+
+    private final ItemRepository itemRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, IndexedItem> items = new HashMap<>();
+    private final Map<Long, Set<String>> tokensByItemId = new HashMap<>();
+
+    /**
+     * Снимок читается под блокировкой записи: иначе index() или removeAll(), выполненные
+     * между чтением и заменой индекса, были бы перезаписаны устаревшим снимком.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<IndexedItem> snapshot;
+        lock.writeLock().lock();
+        try {
+            snapshot = itemRepository.findAllForSearchIndex();
+            postings.clear();
+            items.clear();
+            tokensByItemId.clear();
+            snapshot.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Поисковый индекс вещей построен: {} вещей, {} слов.", snapshot.size(), postings.size());
+    }
+
+    public void index(Item item) {
+        IndexedItem indexedItem = new IndexedItem(item.getId(), item.getName(), item.getDescription(),
+                item.getAvailable(), item.getRequest() != null ? item.getRequest().getId() : null);
+        lock.writeLock().lock();
+        try {
+            remove(item.getId());
+            put(indexedItem);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Удаляет вещи из индекса после коммита транзакции, в которой они удалены
+     * (каскадом при удалении владельца).
+     */
+    public void removeAll(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            unindex(itemIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                unindex(itemIds);
+            }
+        });
+    }
+
+    public IndexedItem get(Long itemId) {
+        lock.readLock().lock();
+        try {
+            return items.get(itemId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<IndexedItem> search(String text) {
+        Set<String> queryTokens = tokenize(text);
+        if (queryTokens.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> scores = null;
+            for (String queryToken : queryTokens) {
+                Map<Long, Integer> tokenScores = scoreToken(queryToken);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((itemId, score) -> score + tokenScores.get(itemId));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            return scores.entrySet().stream()
+                    .filter(entry -> Boolean.TRUE.equals(items.get(entry.getKey()).available()))
+                    .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .map(entry -> items.get(entry.getKey()))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Integer> scoreToken(String queryToken) {
+        Map<Long, Integer> scores = new HashMap<>();
+        postings.subMap(queryToken, true, queryToken + Character.MAX_VALUE, false)
+                .forEach((token, weights) -> {
+                    int factor = token.equals(queryToken) ? EXACT_MATCH_FACTOR : 1;
+                    weights.forEach((itemId, weight) -> scores.merge(itemId, weight * factor, Math::max));
+                });
+        return scores;
+    }
+
+    private void put(IndexedItem item) {
+        Map<String, Integer> weights = new HashMap<>();
+        tokenize(item.description()).forEach(token -> weights.put(token, DESCRIPTION_WEIGHT));
+        tokenize(item.name()).forEach(token -> weights.merge(token, NAME_WEIGHT, Integer::sum));
+
+        weights.forEach((token, weight) -> postings.computeIfAbsent(token, t -> new HashMap<>())
+                .put(item.id(), weight));
+        items.put(item.id(), item);
+        tokensByItemId.put(item.id(), weights.keySet());
+    }
+
+    private void unindex(Collection<Long> itemIds) {
+        lock.writeLock().lock();
+        try {
+            itemIds.forEach(this::remove);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(Long itemId) {
+        Set<String> tokens = tokensByItemId.remove(itemId);
+        items.remove(itemId);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            Map<Long, Integer> weights = postings.get(token);
+            weights.remove(itemId);
+            if (weights.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+    }
+
+    private static Set<String> tokenize(String text) {
+        Set<String> tokens = new HashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.search;
+
+/**
+ * Порядок выдачи поиска: RELEVANCE - по совпадению слов запроса, POPULARITY - по популярности вещи.
+ */
+public enum ItemSort {
+    RELEVANCE,
+    POPULARITY
+}
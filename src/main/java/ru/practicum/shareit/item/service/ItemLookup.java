@@ -0,0 +1,33 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.cache.ReadThroughCache;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemSummaryDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+/**
+ * Поиск вещи по id через кэш "items": существование, доступность и владелец без обращения к БД.
+ * Кэш очищают updateItem и deleteUser (вещи удаляются каскадом).
+ */
+@Component
+public class ItemLookup {
+    private final ItemRepository itemRepository;
+    private final ReadThroughCache<Long, ItemSummaryDto> cache;
+
+    public ItemLookup(ItemRepository itemRepository, CacheManager cacheManager,
+                      PlatformTransactionManager transactionManager) {
+        this.itemRepository = itemRepository;
+        this.cache = new ReadThroughCache<>(cacheManager, CacheConfig.ITEMS, ItemSummaryDto.class,
+                transactionManager);
+    }
+
+    public ItemSummaryDto get(Long itemId) {
+        return cache.get(itemId, id -> itemRepository.findById(id).map(ItemMapper::toItemSummary))
+                .orElseThrow(() -> new NotFoundException("Вещь с ID " + itemId + " не найдена."));
+    }
+}
@@ -1,22 +1,43 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.item.bulk.ItemImportRow;
 import ru.practicum.shareit.item.comment.CommentDto;
 import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
 import ru.practicum.shareit.item.dto.UpdateItemDto;
+import ru.practicum.shareit.item.search.ItemSort;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public interface ItemService {
     CreateItemDto addItem(Long ownerId, CreateItemDto createItemDto);
 
+    ItemImportResultDto importItems(Long ownerId, Stream<ItemImportRow> rows);
+
     CreateItemDto updateItem(Long ownerId, Long itemId, UpdateItemDto itemDto);
 
-    ItemWithBookingDto getItemById(Long itemId);
+    ItemWithBookingDto getItemById(Long itemId, Long userId);
+
+    String getItemETag(Long itemId, Long userId);
 
     List<ItemWithBookingDto> getAllItemsByOwnerId(Long ownerId);
 
-    List<CreateItemDto> getAvailableItemsByText(String text);
+    void streamItemsByOwnerId(Long ownerId, Consumer<List<ItemWithBookingDto>> chunkConsumer);
+
+    String getOwnerItemsETag(Long ownerId);
+
+    List<CreateItemDto> getAvailableItemsByText(String text, LocalDate from, LocalDate to, ItemSort sort);
+
+    List<CreateItemDto> getTrendingItems(int size);
+
+    ItemAvailabilityDto getItemAvailability(Long itemId, LocalDate from, LocalDate to);
+
+    List<CommentDto> getItemComments(Long itemId, int from, int size);
 
     CommentDto addComment(Long ownerId, Long itemId, CommentDto commentDto);
 
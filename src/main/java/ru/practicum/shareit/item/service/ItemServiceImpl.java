@@ -1,33 +1,75 @@
 package ru.practicum.shareit.item.service;
 
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.phase.BookingPhaseSweeper;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.config.RetryOnConflict;
+import ru.practicum.shareit.etag.EntityTags;
+import ru.practicum.shareit.etag.ItemRowVersion;
+import ru.practicum.shareit.etag.ItemVersion;
+import ru.practicum.shareit.event.CommentAddedEvent;
+import ru.practicum.shareit.event.DomainEventPublisher;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.bulk.ItemImportReport;
+import ru.practicum.shareit.item.bulk.ItemImportRow;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.CommentDto;
 import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.comment.CommentView;
+import ru.practicum.shareit.item.comment.ItemCommentSummary;
+import ru.practicum.shareit.item.comment.ItemCommentSummaryRepository;
 import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
 import ru.practicum.shareit.item.dto.UpdateItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.popularity.ItemPopularityIndex;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.IndexedItem;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSort;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserLookup;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static ru.practicum.shareit.item.mapper.ItemMapper.toItemWithBookingDto;
 
@@ -37,23 +79,158 @@ public class ItemServiceImpl implements ItemService {
 
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserLookup userLookup;
+    private final ItemLookup itemLookup;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemCommentSummaryRepository itemCommentSummaryRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final BookingPhaseSweeper bookingPhaseSweeper;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final ItemPopularityIndex itemPopularityIndex;
+    private final DomainEventPublisher domainEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final Validator validator;
+
+    private static final int IMPORT_CHUNK_SIZE = 1000;
+    private static final int STREAM_CHUNK_SIZE = 500;
+    private static final int LATEST_COMMENTS_LIMIT = 10;
+    private static final int MAX_AVAILABILITY_DAYS = 366;
 
     @Override
+    @Transactional
     public CreateItemDto addItem(Long ownerId, CreateItemDto createItemDto) {
-        User owner = userRepository.findById(ownerId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с ID " + ownerId + " не найден."));
+        userLookup.get(ownerId);
 
-        Item item = ItemMapper.toItem(createItemDto, owner);
+        Item item = ItemMapper.toItem(createItemDto, userRepository.getReferenceById(ownerId));
+        if (createItemDto.getRequestId() != null) {
+            item.setRequest(itemRequestRepository.findById(createItemDto.getRequestId())
+                    .orElseThrow(() -> new NotFoundException("Запрос с ID " + createItemDto.getRequestId()
+                            + " не найден.")));
+        }
         Item savedItem = itemRepository.save(item);
+        itemSearchIndex.index(savedItem);
         return ItemMapper.toItemDto(savedItem);
     }
 
     @Override
+    public ItemImportResultDto importItems(Long ownerId, Stream<ItemImportRow> rows) {
+        userLookup.get(ownerId);
+
+        ItemImportReport report = new ItemImportReport();
+        List<ItemImportRow> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        Iterator<ItemImportRow> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            ItemImportRow row = iterator.next();
+            String error = row.error() != null ? row.error() : validate(row.item());
+            if (error != null) {
+                report.failed(row.rowNumber(), error);
+                continue;
+            }
+            chunk.add(row);
+            if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                saveChunk(ownerId, chunk, report);
+            }
+        }
+        saveChunk(ownerId, chunk, report);
+        return report.toDto();
+    }
+
+    private String validate(CreateItemDto item) {
+        Set<ConstraintViolation<CreateItemDto>> violations = validator.validate(item);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    /**
+     * Запросы, на которые отвечают вещи, проверяются одним запросом на порцию; строки со ссылкой
+     * на несуществующий запрос отклоняются, как в addItem. Если порция не сохранилась целиком,
+     * строки сохраняются по одной в отдельных транзакциях, чтобы ошибку получили только виновные.
+     * После очистки контекста владелец не переиспользуется: каждая транзакция берёт на него
+     * свежую ссылку через getReferenceById.
+     */
+    private void saveChunk(Long ownerId, List<ItemImportRow> chunk, ItemImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            List<ItemImportRow> resolved = resolveRequests(chunk, report);
+            try {
+                saveRows(ownerId, resolved, report);
+            } catch (DataAccessException | PersistenceException | ConstraintViolationException
+                     | TransactionException e) {
+                entityManager.clear();
+                for (ItemImportRow row : resolved) {
+                    try {
+                        saveRows(ownerId, List.of(row), report);
+                    } catch (DataAccessException | PersistenceException | ConstraintViolationException
+                             | TransactionException rowError) {
+                        report.failed(row.rowNumber(), "Не удалось сохранить вещь: "
+                                + NestedExceptionUtils.getMostSpecificCause(rowError).getMessage());
+                    } finally {
+                        entityManager.clear();
+                    }
+                }
+            }
+        } finally {
+            entityManager.clear();
+            chunk.clear();
+        }
+    }
+
+    private List<ItemImportRow> resolveRequests(List<ItemImportRow> chunk, ItemImportReport report) {
+        Set<Long> requestIds = chunk.stream()
+                .map(row -> row.item().getRequestId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Long> existing = requestIds.isEmpty() ? Set.of() : itemRequestRepository.findExistingIds(requestIds);
+        List<ItemImportRow> resolved = new ArrayList<>(chunk.size());
+        for (ItemImportRow row : chunk) {
+            Long requestId = row.item().getRequestId();
+            if (requestId != null && !existing.contains(requestId)) {
+                report.failed(row.rowNumber(), "Запрос с ID " + requestId + " не найден.");
+            } else {
+                resolved.add(row);
+            }
+        }
+        return resolved;
+    }
+
+    private void saveRows(Long ownerId, List<ItemImportRow> rows, ItemImportReport report) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<Item> savedItems = transactionTemplate.execute(status -> {
+            User owner = userRepository.getReferenceById(ownerId);
+            return itemRepository.saveAll(rows.stream()
+                    .map(row -> toImportedItem(row.item(), owner))
+                    .toList());
+        });
+        savedItems.forEach(itemSearchIndex::index);
+        report.imported(savedItems.size());
+    }
+
+    private Item toImportedItem(CreateItemDto createItemDto, User owner) {
+        Item item = ItemMapper.toItem(createItemDto, owner);
+        if (createItemDto.getRequestId() != null) {
+            item.setRequest(itemRequestRepository.getReferenceById(createItemDto.getRequestId()));
+        }
+        return item;
+    }
+
+    @Override
+    @RetryOnConflict
+    @CacheEvict(cacheNames = CacheConfig.ITEMS, key = "#itemId")
+    @Transactional
     public CreateItemDto updateItem(Long ownerId, Long itemId, UpdateItemDto newItemDto) {
-        userRepository.findById(ownerId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с ID " + ownerId + " не найден."));
+        userLookup.get(ownerId);
 
         Item existingItem = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("Вещь с ID " + itemId + " не найдена."));
@@ -73,78 +250,193 @@ public class ItemServiceImpl implements ItemService {
         }
 
         Item updatedItem = itemRepository.save(existingItem);
+        itemSearchIndex.index(updatedItem);
         return ItemMapper.toItemDto(updatedItem);
     }
 
     @Override
-    public ItemWithBookingDto getItemById(Long itemId) {
+    @Transactional(readOnly = true)
+    public ItemWithBookingDto getItemById(Long itemId, Long userId) {
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("Вещь с ID " + itemId + " не найдена."));
-        List<Comment> comments = commentRepository.findByItemId(itemId);
-        List<CommentDto> commentsDto = comments.stream()
-                .map(ItemMapper::toCommentDto)
-                .collect(Collectors.toList());
+        List<Long> itemIds = List.of(itemId);
+        long commentCount = toCommentCountsByItemId(itemIds).getOrDefault(itemId, 0L);
+        List<CommentDto> comments = toLatestCommentsByItemId(itemIds).getOrDefault(itemId, List.of());
 
-        return ItemMapper.toItemWithBookingDto(item, null, null, commentsDto);
+        if (!item.getOwner().getId().equals(userId)) {
+            return ItemMapper.toItemWithBookingDto(item, null, null, commentCount, comments);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        BookingDto lastBooking = toBookingsByItemId(
+                bookingRepository.findLastBookings(itemIds, BookingStatus.APPROVED, now)).get(itemId);
+        BookingDto nextBooking = toBookingsByItemId(
+                bookingRepository.findNextBookings(itemIds, BookingStatus.APPROVED, now)).get(itemId);
+        return ItemMapper.toItemWithBookingDto(item, lastBooking, nextBooking, commentCount, comments);
     }
 
+    /**
+     * ETag собирается из тех же строк, что и ответ, и теми же запросами, что и ETag списка вещей владельца:
+     * версия вещи, счётчик и последние отзывы, а для владельца - последнее и следующее бронирование.
+     */
     @Override
+    @Transactional(readOnly = true)
+    public String getItemETag(Long itemId, Long userId) {
+        ItemVersion version = itemRepository.findVersionById(itemId)
+                .orElseThrow(() -> new NotFoundException("Вещь с ID " + itemId + " не найдена."));
+        List<Long> itemIds = List.of(itemId);
+        if (!version.ownerId().equals(userId)) {
+            return EntityTags.of(itemId, version.version(), commentTag(itemIds));
+        }
+        bookingPhaseSweeper.advanceDue();
+        return EntityTags.of(itemId, version.version(), commentTag(itemIds), bookingTag(itemIds));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<ItemWithBookingDto> getAllItemsByOwnerId(Long ownerId) {
-        userRepository.findById(ownerId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с ID " + ownerId + " не найден."));
+        userLookup.get(ownerId);
+
+        return toItemsWithBookings(itemRepository.findAllByOwnerId(ownerId));
+    }
 
-        List<Item> items = itemRepository.findAllByOwnerId(ownerId);
+    /**
+     * Вещи читаются из курсора пачками: бронирования и комментарии догружаются на пачку,
+     * пачка целиком передаётся получателю, после её отправки контекст персистентности очищается.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamItemsByOwnerId(Long ownerId, Consumer<List<ItemWithBookingDto>> chunkConsumer) {
+        List<Item> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+        try (Stream<Item> items = itemRepository.streamAllByOwnerIdOrderByIdAsc(ownerId)) {
+            Iterator<Item> iterator = items.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == STREAM_CHUNK_SIZE || !iterator.hasNext()) {
+                    chunkConsumer.accept(toItemsWithBookings(chunk));
+                    chunk.clear();
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    private List<ItemWithBookingDto> toItemsWithBookings(List<Item> items) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
         List<Long> itemIds = items.stream()
                 .map(Item::getId)
                 .collect(Collectors.toList());
 
-        List<Booking> bookings = bookingRepository.findByItemIdInAndStatus(itemIds, BookingStatus.APPROVED);
-        Map<Long, List<Booking>> bookingsByItemId = bookings.stream()
-                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
-
-        List<Comment> comments = commentRepository.findByItemIdIn(itemIds);
-        Map<Long, List<Comment>> commentsByItemId = comments.stream()
-                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
-
         LocalDateTime now = LocalDateTime.now();
+        Map<Long, BookingDto> lastBookings = toBookingsByItemId(
+                bookingRepository.findLastBookings(itemIds, BookingStatus.APPROVED, now));
+        Map<Long, BookingDto> nextBookings = toBookingsByItemId(
+                bookingRepository.findNextBookings(itemIds, BookingStatus.APPROVED, now));
+        Map<Long, Long> commentCounts = toCommentCountsByItemId(itemIds);
+        Map<Long, List<CommentDto>> latestComments = toLatestCommentsByItemId(itemIds);
 
         return items.stream()
-                .map(item -> {
-                    List<Booking> itemBookings = bookingsByItemId.getOrDefault(item.getId(), List.of());
-
-                    BookingDto lastBooking = itemBookings.stream()
-                            .filter(b -> b.getStartDate().isBefore(now))
-                            .max(Comparator.comparing(Booking::getStartDate))
-                            .map(b -> BookingMapper.toBookingDto(b, b.getBooker(), b.getItem(), b.getStatus()))
-                            .orElse(null);
-
-                    BookingDto nextBooking = itemBookings.stream()
-                            .filter(b -> b.getStartDate().isAfter(now))
-                            .min(Comparator.comparing(Booking::getStartDate))
-                            .map(b -> BookingMapper.toBookingDto(b, b.getBooker(), b.getItem(), b.getStatus()))
-                            .orElse(null);
-
-                    List<CommentDto> itemComments = commentsByItemId
-                            .getOrDefault(item.getId(), List.of())
-                            .stream()
-                            .map(ItemMapper::toCommentDto)
-                            .toList();
-
-                    return toItemWithBookingDto(item, lastBooking, nextBooking, itemComments);
-                })
+                .map(item -> toItemWithBookingDto(item, lastBookings.get(item.getId()),
+                        nextBookings.get(item.getId()), commentCounts.getOrDefault(item.getId(), 0L),
+                        latestComments.getOrDefault(item.getId(), List.of())))
+                .toList();
+    }
+
+    /**
+     * ETag собирается из тех же строк, что и ответ: версий вещей, счётчиков отзывов, последних отзывов
+     * и последнего и следующего бронирования каждой вещи, без агрегатов по всей истории владельца.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public String getOwnerItemsETag(Long ownerId) {
+        userLookup.get(ownerId);
+        bookingPhaseSweeper.advanceDue();
+        List<ItemRowVersion> items = itemRepository.findRowVersionsByOwnerId(ownerId);
+        if (items.isEmpty()) {
+            return EntityTags.of(ownerId, items);
+        }
+        List<Long> itemIds = items.stream()
+                .map(ItemRowVersion::id)
+                .toList();
+        return EntityTags.of(ownerId, items, commentTag(itemIds), bookingTag(itemIds));
+    }
+
+    private String commentTag(List<Long> itemIds) {
+        List<String> latest = commentRepository.findLatestVersionsByItemIds(itemIds, LATEST_COMMENTS_LIMIT)
+                .stream()
+                .map(comment -> comment.getId() + ":" + comment.getVersion() + ":" + comment.getAuthorVersion())
                 .toList();
+        return new TreeMap<>(toCommentCountsByItemId(itemIds)) + "|" + latest;
+    }
+
+    private String bookingTag(List<Long> itemIds) {
+        LocalDateTime now = LocalDateTime.now();
+        return bookingRepository.findLastBookingVersions(itemIds, BookingStatus.APPROVED, now) + "|"
+                + bookingRepository.findNextBookingVersions(itemIds, BookingStatus.APPROVED, now);
     }
 
     @Override
-    public List<CreateItemDto> getAvailableItemsByText(String text) {
+    @Transactional(readOnly = true)
+    public List<CreateItemDto> getAvailableItemsByText(String text, LocalDate from, LocalDate to, ItemSort sort) {
         if (text.isBlank()) {
             return List.of();
         }
-        return itemRepository.getAvailableItemsByText(text).stream()
+        List<IndexedItem> items = itemSearchIndex.search(text);
+        if (from != null || to != null) {
+            LocalDate rangeFrom = from != null ? from : to;
+            LocalDate rangeTo = to != null ? to : from;
+            validateAvailabilityRange(rangeFrom, rangeTo);
+            Set<Long> busyItemIds = itemAvailabilityIndex.findBusy(
+                    items.stream().map(IndexedItem::id).toList(), rangeFrom, rangeTo);
+            items = items.stream()
+                    .filter(item -> !busyItemIds.contains(item.id()))
+                    .toList();
+        }
+        if (sort == ItemSort.POPULARITY) {
+            items = itemPopularityIndex.sortByScore(items, IndexedItem::id);
+        }
+        return items.stream()
                 .map(ItemMapper::toItemDto)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<CreateItemDto> getTrendingItems(int size) {
+        return itemPopularityIndex.findTop(size, itemId -> {
+                    IndexedItem item = itemSearchIndex.get(itemId);
+                    return item != null && Boolean.TRUE.equals(item.available()) ? item : null;
+                }).stream()
+                .map(ItemMapper::toItemDto)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemAvailabilityDto getItemAvailability(Long itemId, LocalDate from, LocalDate to) {
+        itemLookup.get(itemId);
+        validateAvailabilityRange(from, to);
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(from)
+                .to(to)
+                .free(itemAvailabilityIndex.findFreeRanges(itemId, from, to))
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CommentDto> getItemComments(Long itemId, int from, int size) {
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Вещь с ID " + itemId + " не найдена.");
+        }
+        ScrollPosition position = from == 0 ? ScrollPosition.offset() : ScrollPosition.offset(from - 1);
+        return commentRepository.findByItemIdOrderByDateCreatedDescIdDesc(itemId, position, Limit.of(size))
+                .stream()
+                .map(ItemMapper::toCommentDto)
+                .toList();
+    }
+
     @Override
     @Transactional
     public CommentDto addComment(Long userId, Long itemId, CommentDto commentDto) {
@@ -163,6 +455,42 @@ public class ItemServiceImpl implements ItemService {
 
         Comment comment = ItemMapper.toComment(commentDto, author, item);
         Comment savedComment = commentRepository.save(comment);
+        if (itemCommentSummaryRepository.incrementCommentCount(itemId) == 0) {
+            itemRepository.findWithLockById(itemId);
+            if (itemCommentSummaryRepository.incrementCommentCount(itemId) == 0) {
+                itemCommentSummaryRepository.save(new ItemCommentSummary(itemId, 1L));
+            }
+        }
+        domainEventPublisher.publish(new CommentAddedEvent(savedComment.getId(), itemId, userId,
+                item.getOwner().getId()));
         return ItemMapper.toCommentDto(savedComment);
     }
+
+    private void validateAvailabilityRange(LocalDate from, LocalDate to) {
+        if (from.isBefore(itemAvailabilityIndex.getOrigin()) || from.isBefore(LocalDate.now())) {
+            throw new ValidationException("Период доступности не может начинаться в прошлом.");
+        }
+        if (to.isBefore(from) || to.isAfter(from.plusDays(MAX_AVAILABILITY_DAYS - 1))) {
+            throw new ValidationException("Неверный период доступности.");
+        }
+    }
+
+    private Map<Long, Long> toCommentCountsByItemId(List<Long> itemIds) {
+        return itemCommentSummaryRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(ItemCommentSummary::getItemId, ItemCommentSummary::getCommentCount));
+    }
+
+    private Map<Long, List<CommentDto>> toLatestCommentsByItemId(List<Long> itemIds) {
+        return commentRepository.findLatestByItemIds(itemIds, LATEST_COMMENTS_LIMIT).stream()
+                .collect(Collectors.groupingBy(CommentView::getItemId,
+                        Collectors.mapping(ItemMapper::toCommentDto, Collectors.toList())));
+    }
+
+    private static Map<Long, BookingDto> toBookingsByItemId(List<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity(),
+                        (first, second) -> first.getId() > second.getId() ? first : second))
+                .entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> BookingMapper.toBookingDto(entry.getValue())));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Записывает число строк, которые вернул метод репозитория, в метрику shareit.repository.rows.
+ * Методы, возвращающие Stream, число или признак, не учитываются.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class RepositoryRowsAspect {
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(* ru.practicum.shareit..*Repository+.*(..))")
+    public Object countRows(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object result = joinPoint.proceed();
+        Integer rows = countRows(result);
+        if (rows != null) {
+            Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(joinPoint.getThis());
+            DistributionSummary.builder("shareit.repository.rows")
+                    .description("Строки, полученные одним вызовом репозитория")
+                    .tag("repository", interfaces.length > 0 ? interfaces[0].getSimpleName() : "unknown")
+                    .tag("method", joinPoint.getSignature().getName())
+                    .register(meterRegistry)
+                    .record(rows);
+        }
+        return result;
+    }
+
+    private static Integer countRows(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Window<?> window) {
+            return window.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return null;
+    }
+}
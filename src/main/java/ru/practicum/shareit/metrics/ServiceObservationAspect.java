@@ -0,0 +1,52 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import java.util.Arrays;
+
+/**
+ * Оборачивает публичные методы сервисов в наблюдение shareit.service:
+ * таймер с тегами service, method, state и outcome, а при подключённом трассировщике - ещё и span.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceObservationAspect {
+    private final ObservationRegistry observationRegistry;
+
+    @Around("execution(public * ru.practicum.shareit.booking.service.BookingService+.*(..)) " +
+            "|| execution(public * ru.practicum.shareit.item.service.ItemService+.*(..)) " +
+            "|| execution(public * ru.practicum.shareit.user.service.UserService+.*(..))")
+    public Object observe(ProceedingJoinPoint joinPoint) throws Throwable {
+        String state = Arrays.stream(joinPoint.getArgs())
+                .filter(BookingState.class::isInstance)
+                .map(Object::toString)
+                .findFirst()
+                .orElse("none");
+        Observation observation = Observation.createNotStarted("shareit.service", observationRegistry)
+                .contextualName(joinPoint.getSignature().getDeclaringType().getSimpleName() + "."
+                        + joinPoint.getSignature().getName())
+                .lowCardinalityKeyValue("service", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                .lowCardinalityKeyValue("method", joinPoint.getSignature().getName())
+                .lowCardinalityKeyValue("state", state)
+                .start();
+        try (Observation.Scope scope = observation.openScope()) {
+            Object result = joinPoint.proceed();
+            observation.lowCardinalityKeyValue("outcome", "success");
+            return result;
+        } catch (Throwable e) {
+            observation.lowCardinalityKeyValue("outcome", e.getClass().getSimpleName());
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+}
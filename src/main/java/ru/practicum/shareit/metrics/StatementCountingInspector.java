@@ -0,0 +1,30 @@
+package ru.practicum.shareit.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Считает SQL-запросы, подготовленные Hibernate в текущем потоке между start() и stop().
+ * Экземпляр создаёт сам Hibernate по имени класса, поэтому счётчик хранится в статическом ThreadLocal.
+ */
+public class StatementCountingInspector implements StatementInspector {
+    private static final ThreadLocal<long[]> COUNTER = new ThreadLocal<>();
+
+    public static void start() {
+        COUNTER.set(new long[1]);
+    }
+
+    public static long stop() {
+        long[] counter = COUNTER.get();
+        COUNTER.remove();
+        return counter != null ? counter[0] : 0;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        long[] counter = COUNTER.get();
+        if (counter != null) {
+            counter[0]++;
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.owner;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.owner.dto.OwnerDashboardDto;
+import ru.practicum.shareit.owner.service.OwnerDashboardService;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/owners")
+@RequiredArgsConstructor
+public class OwnerController {
+    private static final String USER_ID = "X-Sharer-User-Id";
+    private final OwnerDashboardService ownerDashboardService;
+
+    @GetMapping("/{ownerId}/dashboard")
+    public OwnerDashboardDto getDashboard(@PathVariable Long ownerId,
+                                          @RequestHeader(USER_ID) Long userId,
+                                          @RequestParam(required = false)
+                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                          @RequestParam(required = false)
+                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (!ownerId.equals(userId)) {
+            throw new ValidationException("Доступ запрещен.");
+        }
+        return ownerDashboardService.getDashboard(ownerId, from, to);
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.owner.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ItemUtilizationDto {
+    private Long itemId;
+    private String name;
+    private Long bookingCount;
+    private Double utilization;
+}
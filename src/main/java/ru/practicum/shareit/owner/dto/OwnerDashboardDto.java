@@ -0,0 +1,22 @@
+package ru.practicum.shareit.owner.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+public class OwnerDashboardDto {
+    private Long ownerId;
+    private LocalDate from;
+    private LocalDate to;
+    private Map<BookingState, Long> bookingCounts;
+    private List<ItemUtilizationDto> items;
+    private List<BookingDto> upcomingBookings;
+    private List<BookingDto> pendingApprovals;
+}
@@ -0,0 +1,5 @@
+package ru.practicum.shareit.owner.service;
+
+public record ItemBookingStats(Long itemId, String itemName, Long total, Long future, Long current, Long past,
+                               Long waiting, Long rejected, Long bookedSeconds) {
+}
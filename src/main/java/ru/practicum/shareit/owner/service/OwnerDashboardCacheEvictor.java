@@ -0,0 +1,20 @@
+package ru.practicum.shareit.owner.service;
+
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.config.CacheConfig;
+
+/**
+ * Сбрасывает кэш сводки владельца при изменении его бронирований. Вызывается в транзакции
+ * изменения, а кэш транзакционный, поэтому запись удаляется после коммита. Сброс локальный:
+ * outbox доставляет событие только одному экземпляру и для него не подходит, поэтому
+ * на остальных экземплярах сводку обновляет короткий срок жизни записи. Он же покрывает
+ * смену фазы по времени.
+ */
+@Component
+public class OwnerDashboardCacheEvictor {
+
+    @CacheEvict(cacheNames = CacheConfig.OWNER_DASHBOARDS, key = "#ownerId")
+    public void evict(Long ownerId) {
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.owner.service;
+
+import ru.practicum.shareit.owner.dto.OwnerDashboardDto;
+
+import java.time.LocalDate;
+
+public interface OwnerDashboardService {
+
+    OwnerDashboardDto getDashboard(Long ownerId, LocalDate from, LocalDate to);
+}
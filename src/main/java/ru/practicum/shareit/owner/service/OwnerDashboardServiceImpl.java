@@ -0,0 +1,99 @@
+package ru.practicum.shareit.owner.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.phase.BookingPhaseSweeper;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.owner.dto.ItemUtilizationDto;
+import ru.practicum.shareit.owner.dto.OwnerDashboardDto;
+import ru.practicum.shareit.user.service.UserLookup;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class OwnerDashboardServiceImpl implements OwnerDashboardService {
+    private static final int DEFAULT_RANGE_DAYS = 30;
+    private static final int MAX_RANGE_DAYS = 366;
+    private static final int LIST_LIMIT = 10;
+
+    private final BookingRepository bookingRepository;
+    private final UserLookup userLookup;
+    private final BookingPhaseSweeper bookingPhaseSweeper;
+
+    /**
+     * Счётчики по состояниям и загрузка вещей считаются одним агрегирующим запросом по вещам,
+     * ближайшие и ожидающие подтверждения бронирования выбираются вторым запросом с оконной
+     * функцией. Объединить их в один запрос нельзя без UNION строк разной формы
+     * (агрегаты по вещам и бронирования с вещью и арендатором), поэтому запросов два.
+     * В кэш попадает только сводка за период по умолчанию.
+     */
+    @Override
+    @Cacheable(cacheNames = CacheConfig.OWNER_DASHBOARDS, key = "#ownerId", condition = "#from == null && #to == null")
+    @Transactional(readOnly = true)
+    public OwnerDashboardDto getDashboard(Long ownerId, LocalDate from, LocalDate to) {
+        userLookup.get(ownerId);
+        LocalDate rangeFrom = from != null ? from : LocalDate.now();
+        LocalDate rangeTo = to != null ? to : rangeFrom.plusDays(DEFAULT_RANGE_DAYS - 1);
+        if (rangeTo.isBefore(rangeFrom) || rangeTo.isAfter(rangeFrom.plusDays(MAX_RANGE_DAYS - 1))) {
+            throw new ValidationException("Неверный период сводки.");
+        }
+        LocalDateTime start = rangeFrom.atStartOfDay();
+        LocalDateTime end = rangeTo.plusDays(1).atStartOfDay();
+        double rangeSeconds = Duration.between(start, end).toSeconds();
+
+        bookingPhaseSweeper.advanceDue();
+        List<ItemBookingStats> stats = bookingRepository.findItemBookingStats(ownerId, start, end);
+        Map<BookingStatus, List<BookingDto>> soonest = bookingRepository
+                .findSoonestApprovedAndWaiting(ownerId, LIST_LIMIT).stream()
+                .collect(Collectors.groupingBy(Booking::getStatus,
+                        Collectors.mapping(BookingMapper::toBookingDto, Collectors.toList())));
+        return OwnerDashboardDto.builder()
+                .ownerId(ownerId)
+                .from(rangeFrom)
+                .to(rangeTo)
+                .bookingCounts(toStateCounts(stats))
+                .items(stats.stream()
+                        .map(itemStats -> ItemUtilizationDto.builder()
+                                .itemId(itemStats.itemId())
+                                .name(itemStats.itemName())
+                                .bookingCount(itemStats.total())
+                                .utilization(itemStats.bookedSeconds() / rangeSeconds)
+                                .build())
+                        .toList())
+                .upcomingBookings(soonest.getOrDefault(BookingStatus.APPROVED, List.of()))
+                .pendingApprovals(soonest.getOrDefault(BookingStatus.WAITING, List.of()))
+                .build();
+    }
+
+    private static Map<BookingState, Long> toStateCounts(List<ItemBookingStats> stats) {
+        Map<BookingState, Long> counts = new EnumMap<>(BookingState.class);
+        for (BookingState state : BookingState.values()) {
+            counts.put(state, 0L);
+        }
+        for (ItemBookingStats itemStats : stats) {
+            counts.merge(BookingState.ALL, itemStats.total(), Long::sum);
+            counts.merge(BookingState.FUTURE, itemStats.future(), Long::sum);
+            counts.merge(BookingState.CURRENT, itemStats.current(), Long::sum);
+            counts.merge(BookingState.PAST, itemStats.past(), Long::sum);
+            counts.merge(BookingState.WAITING, itemStats.waiting(), Long::sum);
+            counts.merge(BookingState.REJECTED, itemStats.rejected(), Long::sum);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ограничение числа одновременно выполняемых запросов по схеме AIMD.
+ * Ответ быстрее latency-threshold при загрузке не меньше половины лимита увеличивает лимит на 1,
+ * медленный ответ умножает его на backoff-ratio. Так лимит держится около числа запросов,
+ * которое база обслуживает без роста задержки, а лишние отклоняются сразу, не занимая пул соединений.
+ * Лимит уменьшается не чаще раза за время ответа: медленные ответы запросов, допущенных до
+ * последнего уменьшения, его уже не снижают, иначе одна волна задержки сбросила бы лимит до минимума.
+ */
+public class AdaptiveConcurrencyLimiter {
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong lastDecreaseNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdNanos,
+                                      double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = new AtomicInteger(Math.max(minLimit, Math.min(maxLimit, initialLimit)));
+        this.lastDecreaseNanos = new AtomicLong(Long.MIN_VALUE);
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Освобождает место и учитывает задержку запроса; время - по System.nanoTime().
+     */
+    public void release(long admittedAtNanos, long completedAtNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (completedAtNanos - admittedAtNanos > latencyThresholdNanos) {
+            long lastDecrease = lastDecreaseNanos.get();
+            if ((lastDecrease == Long.MIN_VALUE || admittedAtNanos - lastDecrease >= 0)
+                    && lastDecreaseNanos.compareAndSet(lastDecrease, completedAtNanos)) {
+                limit.updateAndGet(current -> Math.max(minLimit, (int) (current * backoffRatio)));
+            }
+        } else if (inFlightBefore * 2 >= limit.get()) {
+            limit.updateAndGet(current -> Math.min(maxLimit, current + 1));
+        }
+    }
+
+    /**
+     * Освобождает место, не учитывая задержку (обработчики @LongRunning).
+     */
+    public void releaseUnsampled() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import ru.practicum.shareit.exceptions.TooManyRequestsException;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Общий адаптивный лимит одновременных запросов на запись (POST, PUT, PATCH, DELETE).
+ * Задержка считается от допуска запроса до завершения обработки; задержка обработчиков
+ * {@link LongRunning} лимит не меняет.
+ */
+@Component
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    private static final String ADMITTED_AT = AdmissionControlInterceptor.class.getName() + ".admittedAt";
+    private static final String UNSAMPLED = AdmissionControlInterceptor.class.getName() + ".unsampled";
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Counter rejected;
+
+    public AdmissionControlInterceptor(@Value("${shareit.admission.initial-limit:20}") int initialLimit,
+                                       @Value("${shareit.admission.min-limit:4}") int minLimit,
+                                       @Value("${shareit.admission.max-limit:200}") int maxLimit,
+                                       @Value("${shareit.admission.latency-threshold:PT0.5S}")
+                                       Duration latencyThreshold,
+                                       @Value("${shareit.admission.backoff-ratio:0.9}") double backoffRatio,
+                                       MeterRegistry meterRegistry) {
+        this.limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, latencyThreshold.toNanos(),
+                backoffRatio);
+        Gauge.builder("shareit.admission.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Текущий лимит одновременных запросов на запись")
+                .register(meterRegistry);
+        Gauge.builder("shareit.admission.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Выполняемые запросы на запись")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("shareit.admission.rejected")
+                .description("Запросы на запись, отклонённые из-за перегрузки")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod) || !WRITE_METHODS.contains(request.getMethod())) {
+            return true;
+        }
+        if (!limiter.tryAcquire()) {
+            rejected.increment();
+            throw new TooManyRequestsException("Сервер перегружен, повторите позже.", RETRY_AFTER_SECONDS);
+        }
+        request.setAttribute(ADMITTED_AT, System.nanoTime());
+        if (handlerMethod.hasMethodAnnotation(LongRunning.class)) {
+            request.setAttribute(UNSAMPLED, Boolean.TRUE);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(ADMITTED_AT) instanceof Long admittedAt) {
+            request.removeAttribute(ADMITTED_AT);
+            if (request.getAttribute(UNSAMPLED) != null) {
+                limiter.releaseUnsampled();
+            } else {
+                limiter.release(admittedAt, System.nanoTime());
+            }
+        }
+    }
+}
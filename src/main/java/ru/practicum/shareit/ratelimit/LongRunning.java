@@ -0,0 +1,17 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Обработчик заведомо работает дольше shareit.admission.latency-threshold (пакетная и потоковая
+ * обработка). Запрос занимает место в адаптивном лимите, но его задержка лимит не меняет.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface LongRunning {
+}
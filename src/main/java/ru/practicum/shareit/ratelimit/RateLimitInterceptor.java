@@ -0,0 +1,63 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import ru.practicum.shareit.exceptions.TooManyRequestsException;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверяет лимит @RateLimited до вызова обработчика. Запросы без X-Sharer-User-Id
+ * не ограничиваются здесь: их отклоняет сам контроллер.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+    private static final String USER_ID = "X-Sharer-User-Id";
+    private static final String NOT_LIMITED = "";
+
+    private final RateLimiterRegistry rateLimiterRegistry;
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, String> limitNames = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        String limitName = limitNames.computeIfAbsent(handlerMethod.getMethod(), method -> {
+            RateLimited rateLimited = handlerMethod.getMethodAnnotation(RateLimited.class);
+            return rateLimited != null ? rateLimited.value() : NOT_LIMITED;
+        });
+        Long userId = parseUserId(request.getHeader(USER_ID));
+        if (limitName.isEmpty() || userId == null) {
+            return true;
+        }
+        long waitNanos = rateLimiterRegistry.get(limitName).tryAcquire(userId);
+        if (waitNanos == 0) {
+            return true;
+        }
+        meterRegistry.counter("shareit.ratelimit.rejected", "limit", limitName).increment();
+        throw new TooManyRequestsException("Превышен лимит запросов, повторите позже.",
+                Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+    }
+
+    private static Long parseUserId(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Ограничивает частоту вызовов обработчика одним пользователем (X-Sharer-User-Id).
+ * Ёмкость и скорость пополнения задаются свойствами shareit.rate-limit.&lt;имя&gt;.capacity
+ * и shareit.rate-limit.&lt;имя&gt;.refill-per-second, по умолчанию - shareit.rate-limit.default.*.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RateLimited {
+    String value();
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Лимиты по именам из @RateLimited. Лимит создаётся при первом обращении по свойствам
+ * shareit.rate-limit.&lt;имя&gt;.*; корзины простаивающих пользователей периодически удаляются.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RateLimiterRegistry {
+    private static final String PREFIX = "shareit.rate-limit.";
+    private static final int DEFAULT_CAPACITY = 20;
+    private static final double DEFAULT_REFILL_PER_SECOND = 5;
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, UserRateLimiter> limiters = new ConcurrentHashMap<>();
+
+    public UserRateLimiter get(String name) {
+        UserRateLimiter limiter = limiters.get(name);
+        return limiter != null ? limiter : limiters.computeIfAbsent(name, this::create);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.rate-limit.eviction-interval:PT1M}")
+    public void evictIdle() {
+        limiters.forEach((name, limiter) -> {
+            int evicted = limiter.evictIdle();
+            if (evicted > 0) {
+                log.debug("Лимит {}: удалено {} простаивающих корзин.", name, evicted);
+            }
+        });
+    }
+
+    private UserRateLimiter create(String name) {
+        int capacity = environment.getProperty(PREFIX + name + ".capacity", Integer.class,
+                environment.getProperty(PREFIX + "default.capacity", Integer.class, DEFAULT_CAPACITY));
+        double refillPerSecond = environment.getProperty(PREFIX + name + ".refill-per-second", Double.class,
+                environment.getProperty(PREFIX + "default.refill-per-second", Double.class,
+                        DEFAULT_REFILL_PER_SECOND));
+        UserRateLimiter limiter = new UserRateLimiter(capacity, refillPerSecond, System::nanoTime);
+        Gauge.builder("shareit.ratelimit.buckets", limiter, UserRateLimiter::size)
+                .description("Корзины токенов пользователей в памяти")
+                .tag("limit", name)
+                .register(meterRegistry);
+        log.info("Лимит {}: {} запросов подряд, {} в секунду.", name, capacity, refillPerSecond);
+        return limiter;
+    }
+}
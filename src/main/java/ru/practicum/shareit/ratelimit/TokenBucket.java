@@ -0,0 +1,41 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Корзина токенов в форме GCRA: всё состояние - теоретическое время прихода следующего запроса (TAT).
+ * Полная корзина - TAT не позже текущего момента, пустая - TAT впереди на capacity интервалов пополнения.
+ * Проверка - одно сравнение и CAS, без блокировок и выделения памяти; поле обновляется на месте,
+ * без отдельного AtomicLong, чтобы проверка среди множества корзин не тратила лишний промах кеша.
+ */
+final class TokenBucket {
+    private static final AtomicLongFieldUpdater<TokenBucket> THEORETICAL_ARRIVAL =
+            AtomicLongFieldUpdater.newUpdater(TokenBucket.class, "theoreticalArrival");
+
+    private volatile long theoreticalArrival;
+
+    TokenBucket(long now) {
+        this.theoreticalArrival = now;
+    }
+
+    /**
+     * Возвращает 0, если токен выдан, иначе время в наносекундах до появления следующего токена.
+     */
+    long tryAcquire(long now, long intervalNanos, long burstNanos) {
+        while (true) {
+            long arrival = theoreticalArrival;
+            long next = Math.max(arrival, now) + intervalNanos;
+            long waitNanos = next - now - burstNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (THEORETICAL_ARRIVAL.compareAndSet(this, arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    boolean isFull(long now) {
+        return theoreticalArrival <= now;
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Корзины одного лимита по пользователям. ConcurrentHashMap читает без блокировок
+ * и блокирует при вставке только свою ячейку, поэтому проверки разных пользователей не конкурируют.
+ * Полная корзина неотличима от новой, поэтому такие корзины удаляются без потери состояния.
+ */
+public class UserRateLimiter {
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final LongSupplier clock;
+    private final Map<Long, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    public UserRateLimiter(int capacity, double refillPerSecond, LongSupplier clock) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Ёмкость и скорость пополнения должны быть положительными.");
+        }
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000 / refillPerSecond));
+        this.burstNanos = capacity * intervalNanos;
+        this.clock = clock;
+    }
+
+    /**
+     * Возвращает 0, если запрос пропущен, иначе наносекунды до следующего разрешённого запроса.
+     */
+    public long tryAcquire(Long userId) {
+        long now = clock.getAsLong();
+        TokenBucket bucket = buckets.get(userId);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(userId, id -> new TokenBucket(now));
+        }
+        return bucket.tryAcquire(now, intervalNanos, burstNanos);
+    }
+
+    public int evictIdle() {
+        long now = clock.getAsLong();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+        return before - buckets.size();
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
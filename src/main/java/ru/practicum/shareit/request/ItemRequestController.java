@@ -1,12 +1,48 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.RequiredArgsConstructor;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.request.dto.CreateItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.ratelimit.RateLimited;
+
+import java.util.List;
 
-/**
- * TODO Sprint add-item-requests.
- */
 @RestController
 @RequestMapping(path = "/requests")
+@RequiredArgsConstructor
+@Validated
 public class ItemRequestController {
+    private static final String USER_ID = "X-Sharer-User-Id";
+    private final ItemRequestService itemRequestService;
+
+    @PostMapping
+    @RateLimited("create-request")
+    public ItemRequestDto createRequest(@RequestHeader(USER_ID) Long userId,
+                                        @Valid @RequestBody CreateItemRequestDto requestDto) {
+        return itemRequestService.createRequest(userId, requestDto);
+    }
+
+    @GetMapping
+    public List<ItemRequestDto> getUserRequests(@RequestHeader(USER_ID) Long userId) {
+        return itemRequestService.getUserRequests(userId);
+    }
+
+    @GetMapping("/all")
+    public List<ItemRequestDto> getOtherUsersRequests(@RequestHeader(USER_ID) Long userId,
+                                                      @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                                      @RequestParam(defaultValue = "10") @Positive int size) {
+        return itemRequestService.getOtherUsersRequests(userId, from, size);
+    }
+
+    @GetMapping("/{requestId}")
+    public ItemRequestDto getRequestById(@PathVariable Long requestId,
+                                         @RequestHeader(USER_ID) Long userId) {
+        return itemRequestService.getRequestById(requestId, userId);
+    }
 }
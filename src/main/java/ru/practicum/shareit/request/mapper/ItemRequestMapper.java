@@ -0,0 +1,42 @@
+package ru.practicum.shareit.request.mapper;
+
+import ru.practicum.shareit.request.dto.CreateItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemAnswer;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ItemRequestMapper {
+
+    private ItemRequestMapper() {
+    }
+
+    public static ItemRequest toItemRequest(CreateItemRequestDto requestDto, User requester, LocalDateTime created) {
+        return ItemRequest.builder()
+                .description(requestDto.getDescription())
+                .requester(requester)
+                .dateCreated(created)
+                .build();
+    }
+
+    public static ItemRequestDto toItemRequestDto(ItemRequest request, List<ItemAnswerDto> items) {
+        return ItemRequestDto.builder()
+                .id(request.getId())
+                .description(request.getDescription())
+                .created(request.getDateCreated())
+                .items(items)
+                .build();
+    }
+
+    public static ItemAnswerDto toItemAnswerDto(ItemAnswer answer) {
+        return ItemAnswerDto.builder()
+                .id(answer.itemId())
+                .name(answer.name())
+                .ownerId(answer.ownerId())
+                .build();
+    }
+}
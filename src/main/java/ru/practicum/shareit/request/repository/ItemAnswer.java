@@ -0,0 +1,4 @@
+package ru.practicum.shareit.request.repository;
+
+public record ItemAnswer(Long requestId, Long itemId, String name, Long ownerId) {
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.request.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+
+    List<ItemRequest> findByRequesterIdOrderByDateCreatedDescIdDesc(Long requesterId);
+
+    Window<ItemRequest> findByRequesterIdNotOrderByDateCreatedDescIdDesc(Long requesterId, ScrollPosition position,
+                                                                          Limit limit);
+
+    @Query("select r.id from ItemRequest r where r.id in :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+}
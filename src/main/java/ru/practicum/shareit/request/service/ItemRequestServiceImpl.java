@@ -0,0 +1,87 @@
+package ru.practicum.shareit.request.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.dto.CreateItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemAnswer;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserLookup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class ItemRequestServiceImpl implements ItemRequestService {
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final UserLookup userLookup;
+
+    @Override
+    @Transactional
+    public ItemRequestDto createRequest(Long userId, CreateItemRequestDto requestDto) {
+        userLookup.get(userId);
+        User requester = userRepository.getReferenceById(userId);
+        ItemRequest request = itemRequestRepository.save(
+                ItemRequestMapper.toItemRequest(requestDto, requester, LocalDateTime.now()));
+        return ItemRequestMapper.toItemRequestDto(request, List.of());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemRequestDto> getUserRequests(Long userId) {
+        userLookup.get(userId);
+        return withAnswers(itemRequestRepository.findByRequesterIdOrderByDateCreatedDescIdDesc(userId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemRequestDto> getOtherUsersRequests(Long userId, int from, int size) {
+        userLookup.get(userId);
+        ScrollPosition position = from == 0 ? ScrollPosition.offset() : ScrollPosition.offset(from - 1);
+        return withAnswers(itemRequestRepository.findByRequesterIdNotOrderByDateCreatedDescIdDesc(userId, position,
+                Limit.of(size)).getContent());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemRequestDto getRequestById(Long requestId, Long userId) {
+        userLookup.get(userId);
+        ItemRequest request = itemRequestRepository.findById(requestId)
+                .orElseThrow(() -> new NotFoundException("Запрос с ID " + requestId + " не найден."));
+        return withAnswers(List.of(request)).getFirst();
+    }
+
+    /**
+     * Ответы на все запросы страницы загружаются одним запросом по items.request_id.
+     */
+    private List<ItemRequestDto> withAnswers(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<ItemAnswerDto>> answersByRequestId = itemRepository.findAnswersByRequestIdIn(requests.stream()
+                        .map(ItemRequest::getId)
+                        .toList())
+                .stream()
+                .collect(Collectors.groupingBy(ItemAnswer::requestId,
+                        Collectors.mapping(ItemRequestMapper::toItemAnswerDto, Collectors.toList())));
+        return requests.stream()
+                .map(request -> ItemRequestMapper.toItemRequestDto(request,
+                        answersByRequestId.getOrDefault(request.getId(), List.of())))
+                .toList();
+    }
+}
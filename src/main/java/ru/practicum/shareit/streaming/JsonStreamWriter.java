@@ -0,0 +1,83 @@
+package ru.practicum.shareit.streaming;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * Пишет значения в ответ application/x-ndjson по одному через общий JsonGenerator: в памяти
+ * держится только буфер генератора, а не весь список. Поток ответа закрывает контейнер.
+ * Сброс в сеть идёт один раз на пачку, а не после каждого значения: иначе каждая строка
+ * уходила бы отдельным фрагментом chunked-ответа и отдельным блоком gzip.
+ */
+public class JsonStreamWriter implements Closeable {
+    private final OutputStream out;
+    private final SequenceWriter writer;
+    private boolean empty = true;
+
+    public JsonStreamWriter(ObjectMapper objectMapper, OutputStream out) {
+        this.out = out;
+        try {
+            this.writer = objectMapper.writer()
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .withoutFeatures(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .withRootValueSeparator("\n")
+                    .writeValues(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Ответ application/x-ndjson, тело которого пишет producer. Тип задаётся явно: StreamingResponseBody
+     * не проходит через конвертеры, и без Content-Type контейнер не сжимает ответ.
+     */
+    public static ResponseEntity<StreamingResponseBody> ndjson(ObjectMapper objectMapper,
+                                                               Consumer<JsonStreamWriter> producer) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> {
+                    try (JsonStreamWriter writer = new JsonStreamWriter(objectMapper, out)) {
+                        producer.accept(writer);
+                    }
+                });
+    }
+
+    /**
+     * Пишет пачку значений и сбрасывает её клиенту.
+     */
+    public void writeChunk(Collection<?> values) {
+        try {
+            for (Object value : values) {
+                writer.write(value);
+                empty = false;
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            writer.close();
+            if (!empty) {
+                out.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.user.dto;
+
+/**
+ * Неизменяемый снимок пользователя для кэша "users": экземпляр общий для всех потоков.
+ */
+public record UserSummaryDto(Long id, String name, String email) {
+}
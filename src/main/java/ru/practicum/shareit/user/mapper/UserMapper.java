@@ -2,6 +2,7 @@ package ru.practicum.shareit.user.mapper;
 
 import ru.practicum.shareit.user.dto.CreateUserDto;
 import ru.practicum.shareit.user.dto.UpdateUserDto;
+import ru.practicum.shareit.user.dto.UserSummaryDto;
 import ru.practicum.shareit.user.model.User;
 
 public class UserMapper {
@@ -20,6 +21,18 @@ public class UserMapper {
                 .build();
     }
 
+    public static CreateUserDto toUserDto(UserSummaryDto user) {
+        return CreateUserDto.builder()
+                .id(user.id())
+                .name(user.name())
+                .email(user.email())
+                .build();
+    }
+
+    public static UserSummaryDto toUserSummary(User user) {
+        return new UserSummaryDto(user.getId(), user.getName(), user.getEmail());
+    }
+
     public static User toUser(CreateUserDto createUserDto) {
         if (createUserDto == null) {
             return null;
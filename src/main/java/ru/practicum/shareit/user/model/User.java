@@ -22,4 +22,8 @@ public class User {
 
     @Column(name = "email", nullable = false, unique = true)
     private String email;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.user.service;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.cache.ReadThroughCache;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.user.dto.UserSummaryDto;
+import ru.practicum.shareit.user.mapper.UserMapper;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+/**
+ * Поиск пользователя по id через кэш "users". Сервисы проверяют им существование пользователя,
+ * а для связей берут ссылку через getReferenceById. Кэш очищают updateUser и deleteUser.
+ */
+@Component
+public class UserLookup {
+    private final UserRepository userRepository;
+    private final ReadThroughCache<Long, UserSummaryDto> cache;
+
+    public UserLookup(UserRepository userRepository, CacheManager cacheManager,
+                      PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.cache = new ReadThroughCache<>(cacheManager, CacheConfig.USERS, UserSummaryDto.class,
+                transactionManager);
+    }
+
+    public UserSummaryDto get(Long userId) {
+        return cache.get(userId, id -> userRepository.findById(id).map(UserMapper::toUserSummary))
+                .orElseThrow(() -> new NotFoundException("Пользователь с ID " + userId + " не найден."));
+    }
+}
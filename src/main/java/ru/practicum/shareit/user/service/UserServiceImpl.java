@@ -1,9 +1,18 @@
 package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exceptions.InternalServerException;
 import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.popularity.ItemPopularityIndex;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.user.dto.CreateUserDto;
 import ru.practicum.shareit.user.dto.UpdateUserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
@@ -18,8 +27,15 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final UserLookup userLookup;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final ItemPopularityIndex itemPopularityIndex;
 
     @Override
+    @Transactional(readOnly = true)
     public List<CreateUserDto> getAllUsers() {
         return userRepository.findAll().stream()
                 .map(UserMapper::toUserDto)
@@ -28,9 +44,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public CreateUserDto getUserById(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с ID " + userId + " не найден."));
-        return UserMapper.toUserDto(user);
+        return UserMapper.toUserDto(userLookup.get(userId));
     }
 
     @Override
@@ -44,6 +58,8 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId")
+    @Transactional
     public CreateUserDto updateUser(Long userId, UpdateUserDto newUserDto) {
         User existingUser = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь с ID " + userId + " не найден для обновления."));
@@ -67,10 +83,22 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId"),
+            @CacheEvict(cacheNames = CacheConfig.ITEMS, allEntries = true)})
+    @Transactional
     public void deleteUser(Long userId) {
         if (userRepository.findById(userId).isEmpty()) {
             throw new NotFoundException("Пользователь с ID " + userId + " не найден.");
         }
+        List<Long> itemIds = itemRepository.findIdsByOwnerId(userId);
+        List<Long> bookedItemIds = bookingRepository.findBookedItemIdsByBookerId(userId);
         userRepository.deleteById(userId);
+        itemSearchIndex.removeAll(itemIds);
+        itemPopularityIndex.removeAll(itemIds);
+        itemAvailabilityIndex.removeAll(itemIds);
+        itemAvailabilityIndex.reloadAll(bookedItemIds.stream()
+                .filter(itemId -> !itemIds.contains(itemId))
+                .toList());
     }
 }
@@ -0,0 +1,15 @@
+-- Контрольные точки популярности вещей; начальная оценка - подтверждённые бронирования и отзывы без затухания
+CREATE TABLE IF NOT EXISTS item_popularity (
+  item_id BIGINT NOT NULL,
+  score DOUBLE PRECISION NOT NULL,
+  updated_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  CONSTRAINT pk_item_popularity PRIMARY KEY (item_id),
+  FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE
+);
+
+INSERT INTO item_popularity (item_id, score, updated_at)
+SELECT item_id, SUM(weight), LOCALTIMESTAMP
+FROM (SELECT item_id, 1.0 AS weight FROM bookings WHERE status = 'APPROVED' AND item_id IS NOT NULL
+      UNION ALL
+      SELECT item_id, 0.5 AS weight FROM comments WHERE item_id IS NOT NULL) events
+GROUP BY item_id;
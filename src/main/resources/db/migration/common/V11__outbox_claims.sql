@@ -0,0 +1,6 @@
+-- Аренда строк outbox: экземпляр помечает забранные строки своим токеном и сдвигает available_at
+-- на срок аренды; строки, исчерпавшие попытки, помечаются dead_at и больше не выбираются
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS claim_token VARCHAR(36);
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS dead_at TIMESTAMP WITHOUT TIME ZONE;
+
+CREATE INDEX IF NOT EXISTS idx_outbox_events_claim_token ON outbox_events (claim_token);
@@ -0,0 +1,15 @@
+-- Начальная оценка V10 не учитывала затухание: оценки пересчитываются из истории. Вклад бронирования
+-- затухает от даты окончания, отзыва - от даты создания, с периодом полураспада 7 дней
+-- (shareit.popularity.half-life по умолчанию); возраст ограничен 100 периодами, чтобы EXP не уходил в ноль
+DELETE FROM item_popularity;
+
+INSERT INTO item_popularity (item_id, score, updated_at)
+SELECT item_id,
+       SUM(weight * EXP(-LN(2) * LEAST(GREATEST(
+               EXTRACT(EPOCH FROM LOCALTIMESTAMP) - EXTRACT(EPOCH FROM happened_at), 0), 60480000) / 604800)),
+       LOCALTIMESTAMP
+FROM (SELECT item_id, 1.0 AS weight, end_date AS happened_at
+      FROM bookings WHERE status = 'APPROVED' AND item_id IS NOT NULL AND end_date IS NOT NULL
+      UNION ALL
+      SELECT item_id, 0.5 AS weight, date_created AS happened_at FROM comments WHERE item_id IS NOT NULL) events
+GROUP BY item_id;
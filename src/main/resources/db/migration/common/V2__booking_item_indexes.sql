@@ -0,0 +1,13 @@
+-- Списки бронирований пользователя: все и по периоду отсортированы по start_date, WAITING/REJECTED - по статусу
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booker_id, status, start_date DESC);
+
+-- Списки владельца, последнее/следующее бронирование и проверка пересечений идут по item_id
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+
+-- Загрузка занятых интервалов при старте
+CREATE INDEX IF NOT EXISTS idx_bookings_status_end ON bookings (status, end_date);
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item_created ON comments (item_id, date_created DESC);
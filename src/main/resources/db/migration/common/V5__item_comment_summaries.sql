@@ -0,0 +1,9 @@
+CREATE TABLE IF NOT EXISTS item_comment_summaries (
+  item_id BIGINT NOT NULL,
+  comment_count BIGINT NOT NULL,
+  CONSTRAINT pk_item_comment_summary PRIMARY KEY (item_id),
+  FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE
+);
+
+INSERT INTO item_comment_summaries (item_id, comment_count)
+SELECT item_id, COUNT(*) FROM comments GROUP BY item_id;
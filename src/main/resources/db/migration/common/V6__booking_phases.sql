@@ -0,0 +1,19 @@
+-- Фаза бронирования (FUTURE -> CURRENT -> PAST) хранится в строке и продвигается BookingPhaseSweeper,
+-- чтобы списки CURRENT/PAST/FUTURE и счётчики по состояниям шли по индексу с равенством, а не по диапазону дат
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS phase VARCHAR(10);
+
+UPDATE bookings SET phase = CASE
+    WHEN end_date <= LOCALTIMESTAMP THEN 'PAST'
+    WHEN start_date <= LOCALTIMESTAMP THEN 'CURRENT'
+    ELSE 'FUTURE'
+END
+WHERE phase IS NULL;
+
+ALTER TABLE bookings ALTER COLUMN phase SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_phase_start ON bookings (booker_id, phase, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_phase_start ON bookings (item_id, phase, start_date DESC);
+
+-- Досчёт фаз: переходы FUTURE -> CURRENT по start_date и в PAST по end_date
+CREATE INDEX IF NOT EXISTS idx_bookings_phase_start ON bookings (phase, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_phase_end ON bookings (phase, end_date);
@@ -0,0 +1,14 @@
+-- Transactional outbox: события пишутся в одной транзакции с изменением и доставляются OutboxDispatcher
+CREATE SEQUENCE IF NOT EXISTS outbox_events_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+  id BIGINT NOT NULL,
+  event_type VARCHAR(100) NOT NULL,
+  payload VARCHAR(2000) NOT NULL,
+  created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  available_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  attempts INTEGER NOT NULL,
+  CONSTRAINT pk_outbox_event PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_events_available ON outbox_events (available_at, id);
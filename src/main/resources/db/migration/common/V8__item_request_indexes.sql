@@ -0,0 +1,6 @@
+-- Свои запросы пользователя и чужие запросы отсортированы по дате создания
+CREATE INDEX IF NOT EXISTS idx_requests_requester_created ON requests (requester_id, date_created DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_requests_created ON requests (date_created DESC, id DESC);
+
+-- Ответы на страницу запросов загружаются одним запросом по request_id
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
@@ -0,0 +1,4 @@
+-- Поиск вещей по тексту идёт по индексу в памяти (ItemSearchIndex), запрос с like по upper(name)
+-- и upper(description) удалён, поэтому триграммные индексы только замедляют запись
+DROP INDEX IF EXISTS idx_items_name_trgm;
+DROP INDEX IF EXISTS idx_items_description_trgm;
@@ -0,0 +1,8 @@
+-- Поиск getAvailableItemsByText ищет подстроку в upper(name) и upper(description)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items USING gin (upper(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm ON items USING gin (upper(description) gin_trgm_ops);
+
+-- Проверка занятости email сравнивает upper(email)
+CREATE INDEX IF NOT EXISTS idx_users_email_upper ON users (upper(email));
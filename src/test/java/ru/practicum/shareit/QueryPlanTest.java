@@ -0,0 +1,199 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingPhase;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingSpecifications;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.comment.ItemCommentSummaryRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверяет планы H2 для запросов репозиториев на заполненной базе.
+ * findByEmailIgnoreCase использует индекс по выражению, который есть только в PostgreSQL,
+ * поэтому здесь не проверяется.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.QueryPlanTest$CapturingStatementInspector")
+@Transactional
+class QueryPlanTest {
+    private static final long ID_BASE = 1_000_000;
+    private static final int USERS = 500;
+    private static final int ITEMS = 2_000;
+    private static final int BOOKINGS = 20_000;
+    private static final int REQUESTS = 2_000;
+    private static final long OWNER_ID = ID_BASE + 1;
+    private static final long ITEM_ID = ID_BASE + USERS;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemCommentSummaryRepository itemCommentSummaryRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO users (id, name, email) "
+                + "SELECT ? + X, 'user' || X, 'plan' || X || '@mail.ru' FROM SYSTEM_RANGE(1, ?)", ID_BASE, USERS);
+        jdbcTemplate.update("INSERT INTO requests (id, description, requester_id, date_created) "
+                + "SELECT ? + X, 'request' || X, ? + MOD(X, ?) + 1, DATEADD('MINUTE', -X, LOCALTIMESTAMP) "
+                + "FROM SYSTEM_RANGE(1, ?)", ID_BASE, ID_BASE, USERS, REQUESTS);
+        jdbcTemplate.update("INSERT INTO items (id, name, description, available, owner_id, request_id) "
+                + "SELECT ? + X, 'item' || X, 'description' || X, TRUE, ? + MOD(X, ?) + 1, "
+                + "CASE WHEN MOD(X, 4) = 0 THEN ? + MOD(X, ?) + 1 END "
+                + "FROM SYSTEM_RANGE(1, ?)", ID_BASE, ID_BASE, USERS, ID_BASE, REQUESTS, ITEMS);
+        jdbcTemplate.update("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status, phase) "
+                + "SELECT ? + X, DATEADD('DAY', MOD(X, 60) - 30, LOCALTIMESTAMP), "
+                + "DATEADD('DAY', MOD(X, 60) - 29, LOCALTIMESTAMP), ? + MOD(X, ?) + 1, ? + MOD(X, ?) + 1, "
+                + "CASE MOD(X, 3) WHEN 0 THEN 'WAITING' WHEN 1 THEN 'REJECTED' ELSE 'APPROVED' END, "
+                + "CASE WHEN MOD(X, 60) < 30 THEN 'PAST' WHEN MOD(X, 60) = 30 THEN 'CURRENT' ELSE 'FUTURE' END "
+                + "FROM SYSTEM_RANGE(1, ?)", ID_BASE, ID_BASE, ITEMS, ID_BASE, USERS, BOOKINGS);
+        jdbcTemplate.update("INSERT INTO comments (text, item_id, author_id, date_created) "
+                + "SELECT 'comment' || X, ? + MOD(X, ?) + 1, ? + MOD(X, ?) + 1, LOCALTIMESTAMP "
+                + "FROM SYSTEM_RANGE(1, ?)", ID_BASE, ITEMS, ID_BASE, USERS, ITEMS);
+        CapturingStatementInspector.SQL.clear();
+    }
+
+    @Test
+    void repositoryQueriesDoNotScanTables() {
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingStatus> occupying = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+        userRepository.findById(OWNER_ID);
+        itemRepository.findById(ITEM_ID);
+        itemRepository.findAllByOwnerId(OWNER_ID);
+        itemRepository.findWithLockById(ITEM_ID);
+        itemRepository.findAllWithLockByIdInOrderByIdAsc(List.of(ITEM_ID, ITEM_ID + 1));
+        itemRepository.findAnswersByRequestIdIn(List.of(ID_BASE + 1, ID_BASE + 2));
+        itemRequestRepository.findById(ID_BASE + 1);
+        itemRequestRepository.findByRequesterIdOrderByDateCreatedDescIdDesc(OWNER_ID);
+        itemRequestRepository.findByRequesterIdNotOrderByDateCreatedDescIdDesc(OWNER_ID, ScrollPosition.offset(),
+                Limit.of(10));
+        commentRepository.findByItemIdOrderByDateCreatedDescIdDesc(ITEM_ID, ScrollPosition.offset(), Limit.of(10));
+        commentRepository.findLatestByItemIds(List.of(ITEM_ID, ITEM_ID + 1), 10);
+        itemCommentSummaryRepository.findAllById(List.of(ITEM_ID, ITEM_ID + 1));
+        bookingRepository.findById(ID_BASE + 1);
+        bookingRepository.findWithItemByIdIn(List.of(ID_BASE + 1, ID_BASE + 2));
+        bookingRepository.findByItemIdInAndStatusAndStartDateBeforeAndEndDateAfter(List.of(ITEM_ID, ITEM_ID + 1),
+                BookingStatus.APPROVED, now.plusDays(1), now);
+        bookingRepository.findLastBookings(List.of(ITEM_ID, ITEM_ID + 1), BookingStatus.APPROVED, now);
+        bookingRepository.findNextBookings(List.of(ITEM_ID, ITEM_ID + 1), BookingStatus.APPROVED, now);
+        bookingRepository.findBookedIntervals(occupying, now);
+        bookingRepository.findBookedIntervalsByItemId(ITEM_ID, occupying, now);
+        bookingRepository.findBookedItemIdsByBookerId(OWNER_ID);
+        bookingRepository.existsByItemIdAndStatusInAndStartDateBeforeAndEndDateAfter(ITEM_ID, occupying,
+                now.plusDays(1), now);
+        bookingRepository.existsByItemIdAndIdNotAndStatusAndStartDateBeforeAndEndDateAfter(ITEM_ID, ID_BASE + 1,
+                BookingStatus.APPROVED, now.plusDays(1), now);
+        bookingRepository.findByBookerIdAndItemIdAndStatusAndEndDateBefore(OWNER_ID, ITEM_ID,
+                BookingStatus.APPROVED, now);
+        bookingRepository.findPeriodsByPhaseInAndStartBefore(List.of(BookingPhase.FUTURE), now.plusHours(1));
+        bookingRepository.findPeriodsByPhaseInAndEndBefore(List.of(BookingPhase.FUTURE, BookingPhase.CURRENT),
+                now.plusHours(1));
+        bookingRepository.countByBookerId(OWNER_ID);
+        bookingRepository.countByItemOwnerId(OWNER_ID);
+        bookingRepository.findItemBookingStats(OWNER_ID, now, now.plusDays(30));
+        itemRepository.findVersionById(ITEM_ID);
+        itemRepository.findRowVersionsByOwnerId(OWNER_ID);
+        commentRepository.findLatestVersionsByItemIds(List.of(ITEM_ID, ITEM_ID + 1), 10);
+        bookingRepository.findVersionById(ID_BASE + 1);
+        bookingRepository.findLastBookingVersions(List.of(ITEM_ID, ITEM_ID + 1), BookingStatus.APPROVED, now);
+        bookingRepository.findNextBookingVersions(List.of(ITEM_ID, ITEM_ID + 1), BookingStatus.APPROVED, now);
+        bookingRepository.findVersions(BookingSpecifications.byItemOwner(OWNER_ID)
+                .and(BookingSpecifications.inState(BookingState.ALL)), BookingSpecifications.NEWEST_FIRST, 0, 10);
+        BookingCursor cursor = new BookingCursor(now, ID_BASE + BOOKINGS);
+        for (BookingState state : BookingState.values()) {
+            bookingRepository.findBy(BookingSpecifications.byBooker(OWNER_ID)
+                    .and(BookingSpecifications.inState(state))
+                    .and(BookingSpecifications.after(cursor))
+                    .and(BookingSpecifications.fetchItemAndBooker()), query -> query
+                    .sortBy(BookingSpecifications.NEWEST_FIRST)
+                    .limit(10)
+                    .all());
+            bookingRepository.findBy(BookingSpecifications.byItemOwner(OWNER_ID)
+                    .and(BookingSpecifications.inState(state))
+                    .and(BookingSpecifications.fetchItemAndBooker()), query -> query
+                    .sortBy(BookingSpecifications.NEWEST_FIRST)
+                    .limit(10)
+                    .all());
+        }
+        bookingRepository.findSoonestApprovedAndWaiting(OWNER_ID, 10);
+        entityManager.flush();
+
+        Map<String, String> tableScans = new LinkedHashMap<>();
+        for (String sql : CapturingStatementInspector.SQL) {
+            String plan = explain(sql);
+            if (plan.contains(".tableScan")) {
+                tableScans.put(sql, plan);
+            }
+        }
+        assertTrue(tableScans.isEmpty(), () -> "Запросы без индекса: " + tableScans.values());
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql);
+                 ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getString(1);
+            }
+        });
+    }
+
+    public static class CapturingStatementInspector implements StatementInspector {
+        private static final Set<String> SQL = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("select")) {
+                SQL.add(sql);
+            }
+            return sql;
+        }
+    }
+}
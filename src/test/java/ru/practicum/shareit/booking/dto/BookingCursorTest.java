@@ -0,0 +1,55 @@
+package ru.practicum.shareit.booking.dto;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exceptions.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BookingCursorTest {
+
+    @Test
+    void encodedCursorDecodesToSamePosition() {
+        BookingCursor cursor = new BookingCursor(LocalDateTime.of(2030, 1, 1, 12, 30, 15, 123_000_000), 42L);
+
+        assertEquals(cursor, BookingCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String encoded = new BookingCursor(LocalDateTime.of(2030, 12, 31, 23, 59), Long.MAX_VALUE).encode();
+
+        assertEquals(-1, indexOfAny(encoded, "+/="));
+    }
+
+    @Test
+    void missingCursorMeansFirstPage() {
+        assertNull(BookingCursor.decode(null));
+        assertNull(BookingCursor.decode(" "));
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThrows(ValidationException.class, () -> BookingCursor.decode("not a cursor"));
+        assertThrows(ValidationException.class, () -> BookingCursor.decode(encode("2030-01-01T00:00")));
+        assertThrows(ValidationException.class, () -> BookingCursor.decode(encode("2030-01-01T00:00|id")));
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int indexOfAny(String value, String chars) {
+        for (int i = 0; i < value.length(); i++) {
+            if (chars.indexOf(value.charAt(i)) >= 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.booking.mapper;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingRefDto;
+import ru.practicum.shareit.booking.dto.NormalizedBookingsDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.user.dto.CreateUserDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Нормализованная форма: бронирования ссылаются на вещи и арендаторов по id, каждая вещь и каждый
+ * арендатор передаются один раз, порядок бронирований сохраняется.
+ */
+class BookingMapperTest {
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 10, 0);
+
+    private final CreateItemDto drill = new CreateItemDto(1L, "Дрель", "Ударная", true, null);
+    private final CreateItemDto saw = new CreateItemDto(2L, "Пила", "Цепная", true, null);
+    private final CreateUserDto ivan = new CreateUserDto(10L, "Иван", "ivan@mail.ru");
+    private final CreateUserDto petr = new CreateUserDto(11L, "Пётр", "petr@mail.ru");
+
+    @Test
+    void sharedItemsAndUsersAreListedOnce() {
+        List<BookingDto> bookings = List.of(
+                booking(3L, drill, ivan, BookingStatus.APPROVED),
+                booking(2L, saw, ivan, BookingStatus.WAITING),
+                booking(1L, drill, petr, BookingStatus.REJECTED));
+
+        NormalizedBookingsDto normalized = BookingMapper.toNormalizedBookings(bookings);
+
+        assertEquals(List.of(3L, 2L, 1L), normalized.getBookings().stream().map(BookingRefDto::getId).toList());
+        assertEquals(List.of(1L, 2L), List.copyOf(normalized.getItems().keySet()));
+        assertEquals(drill, normalized.getItems().get(1L));
+        assertEquals(List.of(10L, 11L), List.copyOf(normalized.getUsers().keySet()));
+        assertEquals(petr, normalized.getUsers().get(11L));
+        BookingRefDto last = normalized.getBookings().get(2);
+        assertEquals(1L, last.getItemId());
+        assertEquals(11L, last.getBookerId());
+        assertEquals(START.plusDays(1), last.getStart());
+        assertEquals(START.plusDays(1).plusHours(2), last.getEnd());
+        assertEquals(BookingStatus.REJECTED, last.getStatus());
+    }
+
+    @Test
+    void emptyListHasEmptyTables() {
+        NormalizedBookingsDto normalized = BookingMapper.toNormalizedBookings(List.of());
+
+        assertTrue(normalized.getBookings().isEmpty());
+        assertTrue(normalized.getItems().isEmpty());
+        assertTrue(normalized.getUsers().isEmpty());
+    }
+
+    private static BookingDto booking(Long id, CreateItemDto item, CreateUserDto booker, BookingStatus status) {
+        return BookingDto.builder()
+                .id(id)
+                .start(START.plusDays(id))
+                .end(START.plusDays(id).plusHours(2))
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .build();
+    }
+}
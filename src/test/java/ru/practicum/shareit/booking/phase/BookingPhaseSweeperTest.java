@@ -0,0 +1,110 @@
+package ru.practicum.shareit.booking.phase;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPhase;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Неудачный проход повторяется, читатель ждёт завершения чужого прохода, а в очередь
+ * попадают только переходы в пределах горизонта, в том числе дочитанные из БД.
+ */
+class BookingPhaseSweeperTest {
+    private static final long BOOKING_ID = 1L;
+
+    private BookingRepository bookingRepository;
+    private BookingPhaseSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        sweeper = new BookingPhaseSweeper(bookingRepository, mock(PlatformTransactionManager.class),
+                Duration.ofHours(1));
+        schedule(BOOKING_ID);
+    }
+
+    @Test
+    void failedTransitionsAreRetriedByNextSweep() {
+        when(bookingRepository.updatePhase(anyCollection(), anyCollection(), eq(BookingPhase.CURRENT)))
+                .thenThrow(new DataAccessResourceFailureException("БД недоступна"))
+                .thenReturn(1);
+
+        sweeper.advanceDue();
+        sweeper.advanceDue();
+        sweeper.advanceDue();
+
+        verify(bookingRepository, times(2))
+                .updatePhase(eq(List.of(BOOKING_ID)), anyCollection(), eq(BookingPhase.CURRENT));
+    }
+
+    @Test
+    void readerWaitsForRunningSweep() throws InterruptedException {
+        AtomicBoolean otherWaited = new AtomicBoolean();
+        when(bookingRepository.updatePhase(anyCollection(), anyCollection(), eq(BookingPhase.CURRENT)))
+                .thenAnswer(invocation -> {
+                    if (invocation.<List<Long>>getArgument(0).contains(BOOKING_ID)) {
+                        Thread other = new Thread(sweeper::advanceDue);
+                        other.start();
+                        other.join(500);
+                        otherWaited.set(other.isAlive());
+                    }
+                    return 1;
+                });
+
+        sweeper.advanceDue();
+
+        assertTrue(otherWaited.get(), "Читатель вернулся, не дождавшись записи наступивших переходов");
+        verify(bookingRepository, times(1))
+                .updatePhase(anyCollection(), anyCollection(), eq(BookingPhase.CURRENT));
+    }
+
+    @Test
+    void onlyTransitionsWithinHorizonAreQueued() {
+        LocalDateTime now = LocalDateTime.now();
+        sweeper.schedule(Booking.builder()
+                .id(BOOKING_ID + 1)
+                .startDate(now.minusMinutes(1))
+                .endDate(now.plusDays(1))
+                .phase(BookingPhase.FUTURE)
+                .build());
+        when(bookingRepository.findPeriodsByPhaseInAndStartBefore(anyCollection(), any())).thenReturn(List.of(
+                new BookingPeriod(BOOKING_ID + 2, now.minusMinutes(1), now.plusMinutes(30), BookingPhase.FUTURE)));
+        when(bookingRepository.findPeriodsByPhaseInAndEndBefore(anyCollection(), any())).thenReturn(List.of(
+                new BookingPeriod(BOOKING_ID + 2, now.minusMinutes(1), now.plusMinutes(30), BookingPhase.FUTURE)));
+        sweeper.refill();
+
+        sweeper.advanceDue();
+
+        verify(bookingRepository).updatePhase(eq(List.of(BOOKING_ID, BOOKING_ID + 1, BOOKING_ID + 2)),
+                anyCollection(), eq(BookingPhase.CURRENT));
+        verify(bookingRepository, never()).updatePhase(anyCollection(), anyCollection(), eq(BookingPhase.PAST));
+    }
+
+    private void schedule(long bookingId) {
+        LocalDateTime now = LocalDateTime.now();
+        sweeper.schedule(Booking.builder()
+                .id(bookingId)
+                .startDate(now.minusMinutes(1))
+                .endDate(now.plusHours(1))
+                .phase(BookingPhase.FUTURE)
+                .build());
+    }
+}
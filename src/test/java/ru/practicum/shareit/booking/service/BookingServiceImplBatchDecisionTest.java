@@ -0,0 +1,129 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.UserFixtures;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Пакетное решение по бронированиям: каждое решение получает свой результат в порядке запроса.
+ * Подтверждение, пересекающееся с подтверждённым ранее или в этом же пакете, отклоняется с ошибкой,
+ * решения по чужим, несуществующим и повторным бронированиям не применяются, остальные сохраняются.
+ */
+@SpringBootTest
+class BookingServiceImplBatchDecisionTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void eachDecisionGetsItsOwnOutcome() {
+        User owner = saveUser();
+        Item drill = saveItem(owner);
+        Item saw = saveItem(owner);
+        Item foreign = saveItem(saveUser());
+        LocalDateTime start = LocalDateTime.now().plusDays(5).truncatedTo(ChronoUnit.HOURS);
+        Booking first = saveBooking(drill, start, BookingStatus.WAITING);
+        Booking overlappingFirst = saveBooking(drill, start.plusMinutes(30), BookingStatus.WAITING);
+        Booking rejected = saveBooking(saw, start, BookingStatus.WAITING);
+        saveBooking(saw, start.plusDays(1), BookingStatus.APPROVED);
+        Booking overlappingApproved = saveBooking(saw, start.plusDays(1).plusMinutes(30), BookingStatus.WAITING);
+        Booking notOwned = saveBooking(foreign, start, BookingStatus.WAITING);
+        long missingId = -1L;
+
+        List<BookingDecisionResultDto> results = bookingService.updateBookingStatuses(List.of(
+                decision(first, true),
+                decision(overlappingFirst, true),
+                decision(rejected, false),
+                decision(overlappingApproved, true),
+                decision(notOwned, true),
+                BookingDecisionDto.builder().bookingId(missingId).approved(true).build(),
+                decision(first, false)), owner.getId());
+
+        assertEquals(List.of(first.getId(), overlappingFirst.getId(), rejected.getId(), overlappingApproved.getId(),
+                notOwned.getId(), missingId, first.getId()), results.stream()
+                .map(BookingDecisionResultDto::getBookingId)
+                .toList());
+        assertApplied(results.get(0), BookingStatus.APPROVED);
+        assertFailed(results.get(1), "Вещь уже забронирована на эти даты.");
+        assertApplied(results.get(2), BookingStatus.REJECTED);
+        assertFailed(results.get(3), "Вещь уже забронирована на эти даты.");
+        assertFailed(results.get(4), "Только владелец может подтвердить бронирование");
+        assertFailed(results.get(5), "Бронирование с ID -1 не найдено.");
+        assertFailed(results.get(6), "Повторное решение по бронированию.");
+        assertEquals(BookingStatus.APPROVED, statusOf(first));
+        assertEquals(BookingStatus.WAITING, statusOf(overlappingFirst));
+        assertEquals(BookingStatus.REJECTED, statusOf(rejected));
+        assertEquals(BookingStatus.WAITING, statusOf(overlappingApproved));
+        assertEquals(BookingStatus.WAITING, statusOf(notOwned));
+    }
+
+    private static void assertApplied(BookingDecisionResultDto result, BookingStatus status) {
+        assertEquals(status, result.getStatus());
+        assertNull(result.getError());
+    }
+
+    private static void assertFailed(BookingDecisionResultDto result, String error) {
+        assertNull(result.getStatus());
+        assertEquals(error, result.getError());
+    }
+
+    private BookingStatus statusOf(Booking booking) {
+        return bookingRepository.findById(booking.getId()).orElseThrow().getStatus();
+    }
+
+    private static BookingDecisionDto decision(Booking booking, boolean approved) {
+        return BookingDecisionDto.builder()
+                .bookingId(booking.getId())
+                .approved(approved)
+                .build();
+    }
+
+    private Booking saveBooking(Item item, LocalDateTime start, BookingStatus status) {
+        return bookingRepository.save(Booking.builder()
+                .startDate(start)
+                .endDate(start.plusHours(1))
+                .item(item)
+                .booker(saveUser())
+                .status(status)
+                .build());
+    }
+
+    private Item saveItem(User owner) {
+        return itemRepository.save(Item.builder()
+                .name("drill")
+                .description("batch decision")
+                .available(true)
+                .owner(owner)
+                .build());
+    }
+
+    private User saveUser() {
+        return userRepository.save(UserFixtures.user("user"));
+    }
+}
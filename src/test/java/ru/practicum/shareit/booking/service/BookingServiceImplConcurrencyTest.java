@@ -0,0 +1,177 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.UserFixtures;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Параллельные решения владельца и новые бронирования одной вещи: по каждому бронированию
+ * принимается ровно одно решение, подтверждённые бронирования не пересекаются,
+ * а конфликты версий и блокировок не выходят за пределы повторных попыток.
+ */
+@SpringBootTest
+class BookingServiceImplConcurrencyTest {
+    private static final int THREADS = 16;
+    private static final int SLOTS = 10;
+    private static final int DECISIONS_PER_BOOKING = 4;
+    private static final int NEW_WINDOWS = 10;
+    private static final int BOOKERS_PER_WINDOW = 3;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void concurrentDecisionsAndBookingsDoNotLoseUpdates() throws InterruptedException {
+        User owner = saveUser();
+        List<User> bookers = new ArrayList<>();
+        for (int i = 0; i < BOOKERS_PER_WINDOW; i++) {
+            bookers.add(saveUser());
+        }
+        Item item = itemRepository.save(Item.builder()
+                .name("drill")
+                .description("concurrency")
+                .available(true)
+                .owner(owner)
+                .build());
+        LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+
+        List<Booking> seeded = new ArrayList<>();
+        for (int slot = 0; slot < SLOTS; slot++) {
+            for (int i = 0; i < 2; i++) {
+                seeded.add(bookingRepository.save(Booking.builder()
+                        .startDate(base.plusDays(slot))
+                        .endDate(base.plusDays(slot + 1))
+                        .item(item)
+                        .booker(bookers.get(i))
+                        .status(BookingStatus.WAITING)
+                        .build()));
+            }
+        }
+
+        Map<Long, Queue<BookingStatus>> decisions = new ConcurrentHashMap<>();
+        Map<LocalDateTime, Queue<Long>> created = new ConcurrentHashMap<>();
+        Queue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        List<Runnable> tasks = new ArrayList<>();
+        for (int i = 0; i < seeded.size(); i++) {
+            Long bookingId = seeded.get(i).getId();
+            Long pairId = seeded.get(i ^ 1).getId();
+            for (int n = 0; n < DECISIONS_PER_BOOKING; n++) {
+                boolean approved = n % 2 == 0;
+                if (n < 2) {
+                    tasks.add(() -> record(decisions, bookingId,
+                            bookingService.updateBookingStatus(bookingId, approved, owner.getId()).getStatus()));
+                } else {
+                    tasks.add(() -> bookingService.updateBookingStatuses(List.of(
+                                    BookingDecisionDto.builder().bookingId(bookingId).approved(approved).build(),
+                                    BookingDecisionDto.builder().bookingId(pairId).approved(!approved).build()),
+                            owner.getId()).stream()
+                            .filter(result -> result.getStatus() != null)
+                            .forEach(result -> record(decisions, result.getBookingId(), result.getStatus())));
+                }
+            }
+        }
+        for (int window = 0; window < NEW_WINDOWS; window++) {
+            LocalDateTime start = base.plusDays(SLOTS + window);
+            for (User booker : bookers) {
+                tasks.add(() -> created.computeIfAbsent(start, key -> new ConcurrentLinkedQueue<>())
+                        .add(bookingService.createBooking(CreateBookingDto.builder()
+                                .itemId(item.getId())
+                                .start(start)
+                                .end(start.plusDays(1))
+                                .build(), booker.getId()).getId()));
+            }
+            LocalDateTime seededStart = base.plusDays(window % SLOTS);
+            tasks.add(() -> bookingService.createBooking(CreateBookingDto.builder()
+                    .itemId(item.getId())
+                    .start(seededStart)
+                    .end(seededStart.plusDays(1))
+                    .build(), bookers.get(0).getId()));
+        }
+        Collections.shuffle(tasks);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startGate = new CountDownLatch(1);
+        for (Runnable task : tasks) {
+            executor.execute(() -> {
+                try {
+                    startGate.await();
+                    task.run();
+                } catch (ValidationException e) {
+                    // отказ бизнес-правила - ожидаемый исход гонки
+                } catch (Throwable e) {
+                    unexpected.add(e);
+                }
+            });
+        }
+        startGate.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS), "Задачи не завершились за отведённое время");
+        assertTrue(unexpected.isEmpty(), () -> "Неожиданные ошибки: " + unexpected);
+
+        Map<Long, Booking> bookings = bookingRepository.findAllById(seeded.stream().map(Booking::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        for (Booking booking : seeded) {
+            Queue<BookingStatus> accepted = decisions.getOrDefault(booking.getId(), new ConcurrentLinkedQueue<>());
+            assertEquals(1, accepted.size(), "Решений по бронированию " + booking.getId() + ": " + accepted);
+            assertEquals(accepted.peek(), bookings.get(booking.getId()).getStatus());
+        }
+        for (int slot = 0; slot < SLOTS; slot++) {
+            long approvedInSlot = seeded.subList(slot * 2, slot * 2 + 2).stream()
+                    .filter(booking -> bookings.get(booking.getId()).getStatus() == BookingStatus.APPROVED)
+                    .count();
+            assertTrue(approvedInSlot <= 1, "Подтверждены пересекающиеся бронирования в слоте " + slot);
+        }
+        for (int window = 0; window < NEW_WINDOWS; window++) {
+            Queue<Long> ids = created.get(base.plusDays(SLOTS + window));
+            assertEquals(1, ids == null ? 0 : ids.size(), "Бронирований на окно " + window);
+        }
+    }
+
+    private static void record(Map<Long, Queue<BookingStatus>> decisions, Long bookingId, BookingStatus status) {
+        decisions.computeIfAbsent(bookingId, id -> new ConcurrentLinkedQueue<>()).add(status);
+    }
+
+    private User saveUser() {
+        return userRepository.save(UserFixtures.user("user"));
+    }
+}
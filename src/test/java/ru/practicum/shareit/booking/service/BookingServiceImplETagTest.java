@@ -0,0 +1,125 @@
+package ru.practicum.shareit.booking.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserFixtures;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * ETag списка бронирований владельца зависит только от строк запрошенной страницы:
+ * изменение бронирования за её пределами не сбрасывает ETag, изменение на странице - сбрасывает,
+ * как и появление следующей страницы, от которого зависит X-Next-Cursor.
+ */
+@SpringBootTest
+@Transactional
+class BookingServiceImplETagTest {
+    private static final int BOOKINGS = 5;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User owner;
+    private final List<Booking> newestFirst = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        owner = saveUser();
+        User booker = saveUser();
+        Item item = Item.builder()
+                .name("drill")
+                .description("etag")
+                .available(true)
+                .owner(owner)
+                .build();
+        entityManager.persist(item);
+        LocalDateTime start = LocalDateTime.now().plusDays(10).truncatedTo(ChronoUnit.DAYS);
+        for (int i = BOOKINGS - 1; i >= 0; i--) {
+            Booking booking = Booking.builder()
+                    .startDate(start.plusDays(i))
+                    .endDate(start.plusDays(i).plusHours(1))
+                    .item(item)
+                    .booker(booker)
+                    .status(BookingStatus.WAITING)
+                    .build();
+            entityManager.persist(booking);
+            newestFirst.add(booking);
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void changeOutsidePageKeepsETag() {
+        String before = bookingService.getOwnerBookingsETag(owner.getId(), BookingState.ALL, 0, 2, null);
+
+        approve(newestFirst.getLast());
+
+        assertEquals(before, bookingService.getOwnerBookingsETag(owner.getId(), BookingState.ALL, 0, 2, null));
+    }
+
+    @Test
+    void changeOnPageChangesETag() {
+        String before = bookingService.getOwnerBookingsETag(owner.getId(), BookingState.ALL, 2, 2, null);
+
+        approve(newestFirst.get(3));
+
+        assertNotEquals(before, bookingService.getOwnerBookingsETag(owner.getId(), BookingState.ALL, 2, 2, null));
+    }
+
+    @Test
+    void unpagedETagCoversWholeList() {
+        String before = bookingService.getOwnerBookingsETag(owner.getId(), BookingState.ALL, null, null, null);
+
+        approve(newestFirst.getLast());
+
+        assertNotEquals(before,
+                bookingService.getOwnerBookingsETag(owner.getId(), BookingState.ALL, null, null, null));
+    }
+
+    @Test
+    void rowAfterFullPageChangesETag() {
+        String before = bookingService.getOwnerBookingsETag(owner.getId(), BookingState.ALL, 0, BOOKINGS, null);
+        Booking oldest = newestFirst.getLast();
+
+        entityManager.persist(Booking.builder()
+                .startDate(oldest.getStartDate().minusDays(1))
+                .endDate(oldest.getStartDate().minusDays(1).plusHours(1))
+                .item(oldest.getItem())
+                .booker(oldest.getBooker())
+                .status(BookingStatus.WAITING)
+                .build());
+        entityManager.flush();
+
+        assertNotEquals(before,
+                bookingService.getOwnerBookingsETag(owner.getId(), BookingState.ALL, 0, BOOKINGS, null));
+    }
+
+    private void approve(Booking booking) {
+        booking.setStatus(BookingStatus.APPROVED);
+        entityManager.flush();
+    }
+
+    private User saveUser() {
+        User user = UserFixtures.user("user");
+        entityManager.persist(user);
+        return user;
+    }
+}
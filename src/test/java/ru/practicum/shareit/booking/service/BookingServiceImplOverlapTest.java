@@ -0,0 +1,79 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.UserFixtures;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Пересечение проверяется по БД под блокировкой вещи: бронирование, отклонённое в обход
+ * этого узла, не мешает новому, а пересечение с ожидающим бронированием отклоняется.
+ */
+@SpringBootTest
+class BookingServiceImplOverlapTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rejectedBookingDoesNotBlockNewOne() {
+        Item item = saveItem();
+        LocalDateTime start = LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.HOURS);
+        BookingDto first = bookingService.createBooking(request(item, start), saveUser().getId());
+        assertThrows(ValidationException.class,
+                () -> bookingService.createBooking(request(item, start), saveUser().getId()));
+
+        jdbcTemplate.update("UPDATE bookings SET status = ? WHERE id = ?", BookingStatus.REJECTED.name(), first.getId());
+
+        BookingDto second = bookingService.createBooking(request(item, start), saveUser().getId());
+
+        assertEquals(BookingStatus.WAITING, second.getStatus());
+        assertThrows(ValidationException.class,
+                () -> bookingService.createBooking(request(item, start), saveUser().getId()));
+    }
+
+    private CreateBookingDto request(Item item, LocalDateTime start) {
+        return CreateBookingDto.builder()
+                .itemId(item.getId())
+                .start(start)
+                .end(start.plusHours(1))
+                .build();
+    }
+
+    private Item saveItem() {
+        return itemRepository.save(Item.builder()
+                .name("drill")
+                .description("overlap")
+                .available(true)
+                .owner(saveUser())
+                .build());
+    }
+
+    private User saveUser() {
+        return userRepository.save(UserFixtures.user("user"));
+    }
+}
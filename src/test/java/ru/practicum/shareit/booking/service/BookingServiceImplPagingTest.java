@@ -0,0 +1,151 @@
+package ru.practicum.shareit.booking.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserFixtures;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Постраничная выдача бронирований: переход по курсору при одинаковом start_date
+ * не теряет и не повторяет строки, а запрос без параметров страницы возвращает весь список.
+ */
+@SpringBootTest
+@Transactional
+class BookingServiceImplPagingTest {
+    private static final int SAME_START_BOOKINGS = 7;
+    private static final int OTHER_BOOKINGS = 6;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        owner = saveUser();
+        booker = saveUser();
+        Item item = Item.builder()
+                .name("drill")
+                .description("paging")
+                .available(true)
+                .owner(owner)
+                .build();
+        entityManager.persist(item);
+        LocalDateTime start = LocalDateTime.now().plusDays(10).truncatedTo(ChronoUnit.DAYS);
+        for (int i = 0; i < SAME_START_BOOKINGS; i++) {
+            saveBooking(item, start, start.plusDays(i + 1));
+        }
+        for (int i = 0; i < OTHER_BOOKINGS; i++) {
+            LocalDateTime otherStart = start.plusDays(i % 2 == 0 ? i + 1 : -(i + 1));
+            saveBooking(item, otherStart, otherStart.plusHours(1));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void requestWithoutPageParametersReturnsWholeList() {
+        BookingPageDto page = bookingService.getUserBookings(booker.getId(), BookingState.ALL, null, null, null);
+
+        assertEquals(SAME_START_BOOKINGS + OTHER_BOOKINGS, page.getBookings().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void missingSizeFallsBackToDefaultPage() {
+        BookingPageDto page = bookingService.getUserBookings(booker.getId(), BookingState.ALL, 0, null, null);
+
+        assertEquals(10, page.getBookings().size());
+    }
+
+    @Test
+    void cursorContinuesAcrossEqualStartDates() {
+        List<Long> expected = ids(bookingService.getOwnerBookings(owner.getId(), BookingState.ALL,
+                null, null, null).getBookings());
+
+        List<Long> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            BookingPageDto page = bookingService.getOwnerBookings(owner.getId(), BookingState.ALL, null, 2, cursor);
+            paged.addAll(ids(page.getBookings()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(expected, paged);
+        assertEquals(paged.size(), new HashSet<>(paged).size(), "Строки повторились: " + paged);
+    }
+
+    @Test
+    void offsetAndCursorPagesAgree() {
+        List<Long> expected = ids(bookingService.getUserBookings(booker.getId(), BookingState.ALL,
+                null, null, null).getBookings());
+
+        for (int from = 0; from < expected.size(); from += 3) {
+            List<Long> page = ids(bookingService.getUserBookings(booker.getId(), BookingState.ALL,
+                    from, 3, null).getBookings());
+            assertEquals(expected.subList(from, Math.min(from + 3, expected.size())), page);
+        }
+        BookingPageDto first = bookingService.getUserBookings(booker.getId(), BookingState.ALL, 0, 3, null);
+        assertTrue(first.getNextCursor() != null);
+        assertEquals(expected.subList(3, 6), ids(bookingService.getUserBookings(booker.getId(), BookingState.ALL,
+                null, 3, first.getNextCursor()).getBookings()));
+    }
+
+    @Test
+    void cursorIsReturnedOnlyWhenMoreRowsFollow() {
+        int total = SAME_START_BOOKINGS + OTHER_BOOKINGS;
+
+        assertNull(bookingService.getUserBookings(booker.getId(), BookingState.ALL, null, total, null)
+                .getNextCursor());
+        BookingPageDto first = bookingService.getUserBookings(booker.getId(), BookingState.ALL, null, total - 1, null);
+        assertTrue(first.getNextCursor() != null);
+        BookingPageDto last = bookingService.getUserBookings(booker.getId(), BookingState.ALL, null, total - 1,
+                first.getNextCursor());
+        assertEquals(1, last.getBookings().size());
+        assertNull(last.getNextCursor());
+    }
+
+    private static List<Long> ids(List<BookingDto> bookings) {
+        return bookings.stream().map(BookingDto::getId).toList();
+    }
+
+    private void saveBooking(Item item, LocalDateTime start, LocalDateTime end) {
+        entityManager.persist(Booking.builder()
+                .startDate(start)
+                .endDate(end)
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.WAITING)
+                .build());
+    }
+
+    private User saveUser() {
+        User user = UserFixtures.user("user");
+        entityManager.persist(user);
+        return user;
+    }
+}
@@ -0,0 +1,123 @@
+package ru.practicum.shareit.booking.service;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserFixtures;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class BookingServiceImplQueryCountTest {
+    private static final int PAGE_SIZE = 1000;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        owner = saveUser();
+        booker = saveUser();
+    }
+
+    @ParameterizedTest
+    @EnumSource(BookingState.class)
+    void ownerBookingsStatementCountDoesNotDependOnResultSize(BookingState state) {
+        addBookings(1);
+        long statementsForFewRows = countStatements(() ->
+                bookingService.getOwnerBookings(owner.getId(), state, 0, PAGE_SIZE, null));
+
+        addBookings(20);
+        long statementsForManyRows = countStatements(() ->
+                bookingService.getOwnerBookings(owner.getId(), state, 0, PAGE_SIZE, null));
+
+        assertEquals(statementsForFewRows, statementsForManyRows);
+    }
+
+    @ParameterizedTest
+    @EnumSource(BookingState.class)
+    void userBookingsStatementCountDoesNotDependOnResultSize(BookingState state) {
+        addBookings(1);
+        long statementsForFewRows = countStatements(() ->
+                bookingService.getUserBookings(booker.getId(), state, 0, PAGE_SIZE, null));
+
+        addBookings(20);
+        long statementsForManyRows = countStatements(() ->
+                bookingService.getUserBookings(booker.getId(), state, 0, PAGE_SIZE, null));
+
+        assertEquals(statementsForFewRows, statementsForManyRows);
+    }
+
+    private long countStatements(Supplier<?> call) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        call.get();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void addBookings(int count) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < count; i++) {
+            ItemRequest request = ItemRequest.builder()
+                    .description("request " + i)
+                    .requester(saveUser())
+                    .dateCreated(now)
+                    .build();
+            entityManager.persist(request);
+            Item item = Item.builder()
+                    .name("item " + i)
+                    .description("description " + i)
+                    .available(true)
+                    .owner(owner)
+                    .request(request)
+                    .build();
+            entityManager.persist(item);
+            for (BookingStatus status : BookingStatus.values()) {
+                saveBooking(item, now.minusDays(2), now.minusDays(1), status);
+                saveBooking(item, now.minusDays(1), now.plusDays(1), status);
+                saveBooking(item, now.plusDays(1), now.plusDays(2), status);
+            }
+        }
+    }
+
+    private void saveBooking(Item item, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        entityManager.persist(Booking.builder()
+                .startDate(start)
+                .endDate(end)
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .build());
+    }
+
+    private User saveUser() {
+        User user = UserFixtures.user("user");
+        entityManager.persist(user);
+        return user;
+    }
+}
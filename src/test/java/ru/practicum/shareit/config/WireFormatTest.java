@@ -0,0 +1,137 @@
+package ru.practicum.shareit.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.UserFixtures;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Формат ответа выбирается по Accept: CBOR и Smile кодируют то же дерево, что и JSON (даты - строками),
+ * ответ помечен Vary: Accept, а ETag у форматов разный, поэтому JSON-версия не подтверждает двоичную.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class WireFormatTest {
+    private static final String USER_ID = "X-Sharer-User-Id";
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private User booker;
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        User owner = saveUser("owner");
+        booker = saveUser("booker");
+        Item item = itemRepository.save(Item.builder()
+                .name("drill")
+                .description("wire format")
+                .available(true)
+                .owner(owner)
+                .build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        booking = bookingRepository.save(Booking.builder()
+                .startDate(start)
+                .endDate(start.plusHours(2))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.WAITING)
+                .build());
+    }
+
+    @Test
+    void cborEncodesSameTreeAsJson() throws Exception {
+        JsonNode json = new ObjectMapper().readTree(fetch(MediaType.APPLICATION_JSON).getResponse()
+                .getContentAsByteArray());
+
+        MvcResult cbor = fetch(MediaType.APPLICATION_CBOR);
+
+        assertEquals(MediaType.APPLICATION_CBOR_VALUE, cbor.getResponse().getContentType());
+        assertEquals(json, new ObjectMapper(new CBORFactory()).readTree(cbor.getResponse().getContentAsByteArray()));
+        assertTrue(json.get("start").isTextual());
+    }
+
+    @Test
+    void smileEncodesSameTreeAsJson() throws Exception {
+        JsonNode json = new ObjectMapper().readTree(fetch(MediaType.APPLICATION_JSON).getResponse()
+                .getContentAsByteArray());
+
+        MvcResult smile = fetch(SMILE);
+
+        assertEquals(SMILE.toString(), smile.getResponse().getContentType());
+        assertEquals(json, new ObjectMapper(new SmileFactory()).readTree(smile.getResponse().getContentAsByteArray()));
+    }
+
+    @Test
+    void eTagDependsOnNegotiatedFormat() throws Exception {
+        String jsonTag = fetch(MediaType.APPLICATION_JSON).getResponse().getHeader(HttpHeaders.ETAG);
+        String cborTag = fetch(MediaType.APPLICATION_CBOR).getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertNotEquals(jsonTag, cborTag);
+        assertEquals(jsonTag, fetch(MediaType.ALL).getResponse().getHeader(HttpHeaders.ETAG));
+        mockMvc.perform(get("/bookings/{id}", booking.getId())
+                        .header(USER_ID, booker.getId())
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, jsonTag))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+        mockMvc.perform(get("/bookings/{id}", booking.getId())
+                        .header(USER_ID, booker.getId())
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, cborTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+    }
+
+    private MvcResult fetch(MediaType accept) throws Exception {
+        return mockMvc.perform(get("/bookings/{id}", booking.getId())
+                        .header(USER_ID, booker.getId())
+                        .accept(accept))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn();
+    }
+
+    private User saveUser(String name) {
+        return userRepository.save(UserFixtures.user(name));
+    }
+}
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.datasource.ReplicaRoutingDataSource.DataSourceRole;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Две базы H2 в памяти вместо основной базы и реплики; в каждой таблица с именем базы.
+ */
+class ReplicaRoutingDataSourceTest {
+    private static final Duration MAX_LAG = Duration.ofMillis(300);
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private ReadYourWritesTracker tracker;
+    private ReplicaLagMonitor lagMonitor;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primaryDataSource = h2("primary");
+        DataSource replicaDataSource = h2("replica");
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("CREATE TABLE replica_lag (seconds DOUBLE PRECISION)");
+        replica.update("INSERT INTO replica_lag VALUES (0)");
+
+        tracker = new ReadYourWritesTracker(MAX_LAG);
+        lagMonitor = new ReplicaLagMonitor(replicaDataSource, "SELECT seconds FROM replica_lag", MAX_LAG,
+                new SimpleMeterRegistry());
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(tracker, lagMonitor);
+        routing.setTargetDataSources(Map.<Object, Object>of(DataSourceRole.PRIMARY, primaryDataSource,
+                DataSourceRole.REPLICA, replicaDataSource));
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracker.clearCurrentUser();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplicaAndOthersToPrimary() {
+        assertEquals("replica", readOnly.execute(status -> currentDatabase()));
+        assertEquals("primary", readWrite.execute(status -> currentDatabase()));
+        assertEquals("primary", currentDatabase());
+    }
+
+    @Test
+    void userReadsOwnWritesFromPrimaryUntilMaxLagPasses() throws InterruptedException {
+        tracker.setCurrentUser(1L);
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE marker SET name = name"));
+
+        assertEquals("primary", readOnly.execute(status -> currentDatabase()));
+        tracker.setCurrentUser(2L);
+        assertEquals("replica", readOnly.execute(status -> currentDatabase()));
+
+        Thread.sleep(MAX_LAG.toMillis() + 100);
+        tracker.setCurrentUser(1L);
+        assertEquals("replica", readOnly.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void rolledBackWriteDoesNotMakeUserSticky() {
+        tracker.setCurrentUser(1L);
+        readWrite.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE marker SET name = name");
+            status.setRollbackOnly();
+        });
+
+        assertEquals("replica", readOnly.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void laggingReplicaIsBypassedUntilItCatchesUp() {
+        replica.update("UPDATE replica_lag SET seconds = 5");
+        lagMonitor.check();
+        assertFalse(lagMonitor.isWithinTolerance());
+        assertEquals("primary", readOnly.execute(status -> currentDatabase()));
+
+        replica.update("UPDATE replica_lag SET seconds = 0.1");
+        lagMonitor.check();
+        assertTrue(lagMonitor.isWithinTolerance());
+        assertEquals("replica", readOnly.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void replicaReadIsVisibleOnlyInsideReplicaTransaction() {
+        Boolean insideReplicaRead = readOnly.execute(status -> {
+            currentDatabase();
+            return ReplicaRoutingDataSource.isReplicaRead();
+        });
+        Boolean insidePrimaryWrite = readWrite.execute(status -> {
+            currentDatabase();
+            return ReplicaRoutingDataSource.isReplicaRead();
+        });
+
+        assertEquals(Boolean.TRUE, insideReplicaRead);
+        assertEquals(Boolean.FALSE, insidePrimaryWrite);
+        assertFalse(ReplicaRoutingDataSource.isReplicaRead());
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("SELECT name FROM marker", String.class);
+    }
+
+    private static DataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE marker (name VARCHAR(10))");
+        jdbcTemplate.update("INSERT INTO marker VALUES (?)", name);
+        return dataSource;
+    }
+}
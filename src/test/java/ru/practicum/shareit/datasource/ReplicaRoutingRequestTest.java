@@ -0,0 +1,78 @@
+package ru.practicum.shareit.datasource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Один запрос POST /items сначала читает владельца в транзакции только для чтения (реплика),
+ * затем сохраняет вещь: запись должна попасть в основную базу, а не в соединение,
+ * взятое для чтения. Основная база и реплика - две разные базы H2 в памяти с одной схемой.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "shareit.datasource.replica.jdbc-url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+        "shareit.datasource.replica.username=sa"
+})
+@AutoConfigureMockMvc
+class ReplicaRoutingRequestTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private long ownerId;
+
+    @BeforeEach
+    void setUp() {
+        Flyway.configure()
+                .dataSource(replicaDataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .load()
+                .migrate();
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        String email = UUID.randomUUID() + "@mail.ru";
+        primary.update("INSERT INTO users (name, email) VALUES ('owner', ?)", email);
+        ownerId = primary.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, email);
+        replica.update("INSERT INTO users (id, name, email) VALUES (?, 'owner', ?)", ownerId, email);
+    }
+
+    @Test
+    void writeAfterReplicaReadInSameRequestGoesToPrimary() throws Exception {
+        mockMvc.perform(post("/items")
+                        .header("X-Sharer-User-Id", ownerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}"))
+                .andExpect(status().isOk());
+
+        assertEquals(1, countItems(primary));
+        assertEquals(0, countItems(replica));
+    }
+
+    private int countItems(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM items WHERE owner_id = ?", Integer.class, ownerId);
+    }
+}
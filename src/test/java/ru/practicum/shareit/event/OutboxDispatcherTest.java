@@ -0,0 +1,187 @@
+package ru.practicum.shareit.event;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.popularity.ItemPopularityIndex;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Доставка из outbox не реже одного раза: неудачная попытка откладывается с растущей задержкой
+ * и повторяется, исчерпавшее попытки событие больше не выбирается, а арендованные строки
+ * не забираются повторно до истечения аренды. Популярность вещи меняется только после доставки события.
+ */
+@SpringBootTest(properties = {"shareit.outbox.poll-interval=PT1H", "shareit.outbox.max-attempts=3"})
+class OutboxDispatcherTest {
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private DomainEventPublisher domainEventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private FlakyListener listener;
+
+    @Autowired
+    private ItemPopularityIndex itemPopularityIndex;
+
+    @Test
+    void failedDeliveryIsPostponedAndRetried() {
+        long marker = publish(1);
+
+        dispatch();
+        OutboxEvent postponed = find(marker).orElseThrow();
+        assertEquals(1, listener.calls(marker));
+        assertEquals(1, postponed.getAttempts());
+        assertNull(postponed.getClaimToken());
+        assertTrue(postponed.getAvailableAt().isAfter(LocalDateTime.now().plusSeconds(1)),
+                "Повтор не отложен: " + postponed.getAvailableAt());
+
+        dispatch();
+        assertEquals(1, listener.calls(marker));
+
+        makeDue(marker);
+        dispatch();
+        assertEquals(2, listener.calls(marker));
+        assertTrue(find(marker).isEmpty());
+    }
+
+    @Test
+    void eventIsBuriedAfterMaxAttempts() {
+        long marker = publish(Integer.MAX_VALUE);
+
+        for (int attempt = 0; attempt < 5; attempt++) {
+            makeDue(marker);
+            dispatch();
+        }
+
+        OutboxEvent dead = find(marker).orElseThrow();
+        assertEquals(3, listener.calls(marker));
+        assertEquals(3, dead.getAttempts());
+        assertNotNull(dead.getDeadAt());
+    }
+
+    @Test
+    void leasedEventsAreNotClaimedTwice() {
+        long marker = publish(0);
+        Long id = find(marker).orElseThrow().getId();
+        LocalDateTime now = LocalDateTime.now();
+
+        int first = transactionTemplate.execute(status ->
+                outboxEventRepository.claim(List.of(id), "first", now, now.plusMinutes(1)));
+        int second = transactionTemplate.execute(status ->
+                outboxEventRepository.claim(List.of(id), "second", now, now.plusMinutes(1)));
+        dispatch();
+
+        assertEquals(1, first);
+        assertEquals(0, second);
+        assertEquals(0, listener.calls(marker));
+        assertEquals("first", find(marker).orElseThrow().getClaimToken());
+
+        makeDue(marker);
+        dispatch();
+        assertEquals(1, listener.calls(marker));
+        assertTrue(find(marker).isEmpty());
+    }
+
+    @Test
+    void popularityIsUpdatedByDeliveredEvents() {
+        long itemId = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+        transactionTemplate.executeWithoutResult(status -> domainEventPublisher.publishAll(List.of(
+                new BookingStatusChangedEvent(1L, itemId, 1L, 1L, BookingStatus.APPROVED),
+                new BookingStatusChangedEvent(2L, itemId, 1L, 1L, BookingStatus.REJECTED),
+                new CommentAddedEvent(1L, itemId, 1L, 1L))));
+
+        dispatch();
+
+        assertEquals(ItemPopularityIndex.BOOKING_WEIGHT + ItemPopularityIndex.COMMENT_WEIGHT,
+                itemPopularityIndex.getScore(itemId), 1e-6);
+    }
+
+    private long publish(int failures) {
+        long marker = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+        listener.failFirst(marker, failures);
+        transactionTemplate.executeWithoutResult(status ->
+                domainEventPublisher.publish(new CommentAddedEvent(marker, 1L, 1L, 1L)));
+        return marker;
+    }
+
+    private void dispatch() {
+        outboxDispatcher.signal();
+        outboxDispatcher.dispatch();
+    }
+
+    private void makeDue(long marker) {
+        jdbcTemplate.update("UPDATE outbox_events SET available_at = ? WHERE id = ?",
+                LocalDateTime.now().minusSeconds(1), find(marker).orElseThrow().getId());
+    }
+
+    private Optional<OutboxEvent> find(long marker) {
+        return outboxEventRepository.findAll().stream()
+                .filter(event -> event.getPayload().contains("\"commentId\":" + marker + ","))
+                .findFirst();
+    }
+
+    @TestConfiguration
+    static class Listeners {
+        @Bean
+        FlakyListener flakyListener() {
+            return new FlakyListener();
+        }
+    }
+
+    static class FlakyListener {
+        private final Map<Long, Integer> failuresLeft = new ConcurrentHashMap<>();
+        private final Map<Long, AtomicInteger> calls = new ConcurrentHashMap<>();
+
+        void failFirst(long commentId, int failures) {
+            failuresLeft.put(commentId, failures);
+        }
+
+        int calls(long commentId) {
+            AtomicInteger count = calls.get(commentId);
+            return count == null ? 0 : count.get();
+        }
+
+        @EventListener
+        public void onCommentAdded(CommentAddedEvent event) {
+            Integer left = failuresLeft.get(event.commentId());
+            if (left == null) {
+                return;
+            }
+            calls.computeIfAbsent(event.commentId(), id -> new AtomicInteger()).incrementAndGet();
+            if (left > 0) {
+                failuresLeft.put(event.commentId(), left - 1);
+                throw new IllegalStateException("Сбой слушателя");
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPhase;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.phase.BookingPhaseSweeper;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.UserFixtures;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /items/{id} и GET /items отвечают 304 на актуальный ETag. Переход фазы текущего бронирования
+ * в PAST, выполненный планировщиком фаз, меняет ETag владельца, хотя бронирование остаётся последним.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ItemETagTest {
+    private static final String USER_ID = "X-Sharer-User-Id";
+    private static final Duration ENDS_IN = Duration.ofSeconds(1);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingPhaseSweeper bookingPhaseSweeper;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = saveUser("owner");
+        booker = saveUser("booker");
+        item = itemRepository.save(Item.builder()
+                .name("drill")
+                .description("etag")
+                .available(true)
+                .owner(owner)
+                .build());
+    }
+
+    @Test
+    void itemIsNotModifiedUntilPhaseChanges() throws Exception {
+        Booking booking = saveBookingEndingSoon();
+        MockHttpServletRequestBuilder request = get("/items/{id}", item.getId()).header(USER_ID, owner.getId());
+
+        assertNotModifiedUntilBookingEnds(request, booking);
+    }
+
+    @Test
+    void ownerItemsAreNotModifiedUntilPhaseChanges() throws Exception {
+        Booking booking = saveBookingEndingSoon();
+        MockHttpServletRequestBuilder request = get("/items").header(USER_ID, owner.getId());
+
+        assertNotModifiedUntilBookingEnds(request, booking);
+    }
+
+    @Test
+    void otherUsersGetNotModifiedForSameItem() throws Exception {
+        String etag = eTag(get("/items/{id}", item.getId()).header(USER_ID, booker.getId()));
+
+        mockMvc.perform(get("/items/{id}", item.getId())
+                        .header(USER_ID, booker.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        assertNotEquals(etag, eTag(get("/items/{id}", item.getId()).header(USER_ID, owner.getId())));
+    }
+
+    private void assertNotModifiedUntilBookingEnds(MockHttpServletRequestBuilder request, Booking booking)
+            throws Exception {
+        String etag = eTag(request);
+        mockMvc.perform(request.header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        Thread.sleep(Duration.between(LocalDateTime.now(), booking.getEndDate()).toMillis() + 100);
+
+        String changed = mockMvc.perform(request.header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changed);
+        assertEquals(BookingPhase.PAST, bookingRepository.findById(booking.getId()).orElseThrow().getPhase());
+    }
+
+    private String eTag(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+    }
+
+    private Booking saveBookingEndingSoon() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking booking = bookingRepository.save(Booking.builder()
+                .startDate(now.minusHours(1))
+                .endDate(now.plus(ENDS_IN))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build());
+        bookingPhaseSweeper.schedule(booking);
+        return booking;
+    }
+
+    private User saveUser(String name) {
+        return userRepository.save(UserFixtures.user(name));
+    }
+}
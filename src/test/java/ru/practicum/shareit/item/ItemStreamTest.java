@@ -0,0 +1,139 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.UserFixtures;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /items/stream отдаёт вещи владельца по одной в строке в порядке id, пачками по 500:
+ * 500 вещей - ровно одна полная пачка, 501 - полная пачка и пачка из одной вещи.
+ * Сжатие выполняет контейнер, поэтому оно проверяется запросом к запущенному серверу.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+class ItemStreamTest {
+    private static final String USER_ID = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void fullChunkIsStreamedInIdOrder() throws Exception {
+        User owner = saveOwnerWithItems(500);
+
+        assertEquals(itemIds(owner), streamedIds(stream(owner)));
+    }
+
+    @Test
+    void itemAfterFullChunkIsStreamedInNextChunk() throws Exception {
+        User owner = saveOwnerWithItems(501);
+
+        List<Long> streamed = streamedIds(stream(owner));
+
+        assertEquals(501, streamed.size());
+        assertEquals(itemIds(owner), streamed);
+    }
+
+    @Test
+    void streamIsGzippedWhenClientAcceptsIt() throws Exception {
+        User owner = saveOwnerWithItems(501);
+
+        HttpResponse<InputStream> response = HttpClient.newHttpClient().send(HttpRequest.newBuilder()
+                        .uri(URI.create("http://localhost:" + port + "/items/stream"))
+                        .header(USER_ID, owner.getId().toString())
+                        .header("Accept-Encoding", "gzip")
+                        .build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+
+        assertEquals(200, response.statusCode());
+        assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null));
+        try (InputStream body = new GZIPInputStream(response.body())) {
+            assertEquals(itemIds(owner), streamedIds(new String(body.readAllBytes(), StandardCharsets.UTF_8)));
+        }
+    }
+
+    private String stream(User owner) throws Exception {
+        MvcResult started = mockMvc.perform(get("/items/stream").header(USER_ID, owner.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private List<Long> streamedIds(String body) {
+        return body.lines()
+                .map(line -> {
+                    try {
+                        return objectMapper.readTree(line).get("id").asLong();
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+    }
+
+    private List<Long> itemIds(User owner) {
+        return itemRepository.findAllByOwnerId(owner.getId()).stream()
+                .map(Item::getId)
+                .sorted()
+                .toList();
+    }
+
+    private User saveOwnerWithItems(int count) {
+        User owner = userRepository.save(UserFixtures.user("owner"));
+        itemRepository.saveAll(IntStream.range(0, count)
+                .mapToObj(i -> Item.builder()
+                        .name("item " + i)
+                        .description("stream")
+                        .available(true)
+                        .owner(owner)
+                        .build())
+                .toList());
+        return owner;
+    }
+}
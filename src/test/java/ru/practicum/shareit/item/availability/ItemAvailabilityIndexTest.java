@@ -0,0 +1,103 @@
+package ru.practicum.shareit.item.availability;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.overlap.BookedInterval;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Календарь отвечает из памяти: поиск по периоду и свободные промежутки не обращаются к БД,
+ * ежедневный сдвиг origin сохраняет будущие занятые дни, а перечитывание после удаления
+ * снимает пропавшие бронирования.
+ */
+class ItemAvailabilityIndexTest {
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final ItemAvailabilityIndex index = new ItemAvailabilityIndex(bookingRepository);
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        when(bookingRepository.findBookedIntervals(anyCollection(), any())).thenReturn(List.of(
+                new BookedInterval(1L, 10L, today.plusDays(2).atTime(12, 0), today.plusDays(4).atStartOfDay())));
+        index.warmUp();
+    }
+
+    @Test
+    void busyItemsAreFoundWithoutDatabase() {
+        index.add(booking(2L, today.plusDays(10).atTime(9, 0), today.plusDays(10).atTime(18, 0)));
+
+        assertEquals(Set.of(1L), index.findBusy(List.of(1L, 2L, 3L), today, today.plusDays(2)));
+        assertEquals(Set.of(), index.findBusy(List.of(1L, 2L, 3L), today.plusDays(4), today.plusDays(9)));
+        assertEquals(Set.of(2L), index.findBusy(List.of(1L, 2L, 3L), today.plusDays(5), today.plusDays(10)));
+        verify(bookingRepository).findBookedIntervals(anyCollection(), any());
+        verifyNoMoreInteractions(bookingRepository);
+    }
+
+    @Test
+    void freeRangesSkipBusyDays() {
+        assertEquals(List.of(new DateRange(today, today.plusDays(1)),
+                        new DateRange(today.plusDays(4), today.plusDays(6))),
+                index.findFreeRanges(1L, today, today.plusDays(6)));
+        assertEquals(List.of(), index.findFreeRanges(1L, today.plusDays(2), today.plusDays(3)));
+        assertEquals(List.of(new DateRange(today, today.plusDays(6))),
+                index.findFreeRanges(2L, today, today.plusDays(6)));
+        verify(bookingRepository).findBookedIntervals(anyCollection(), any());
+        verifyNoMoreInteractions(bookingRepository);
+    }
+
+    @Test
+    void rebaseDropsPastDaysAndKeepsFutureOnes() {
+        LocalDate later = today.plusDays(3);
+        index.add(booking(2L, today.atTime(9, 0), today.plusDays(1).atTime(9, 0)));
+
+        index.rebase(later);
+
+        assertEquals(later, index.getOrigin());
+        assertEquals(List.of(new DateRange(later.plusDays(1), later.plusDays(5))),
+                index.findFreeRanges(1L, later, later.plusDays(5)));
+        assertEquals(Set.of(), index.findBusy(List.of(2L), later, later.plusDays(5)));
+    }
+
+    @Test
+    void reloadKeepsOnlyBookingsLeftInDatabase() {
+        index.add(booking(1L, today.plusDays(6).atStartOfDay(), today.plusDays(7).atStartOfDay()));
+        when(bookingRepository.findBookedIntervalsByItemId(eq(1L), anyCollection(), any())).thenReturn(List.of(
+                new BookedInterval(1L, 11L, today.plusDays(6).atStartOfDay(), today.plusDays(7).atStartOfDay())));
+
+        index.reloadAll(List.of(1L));
+
+        assertEquals(Set.of(), index.findBusy(List.of(1L), today, today.plusDays(5)));
+        assertEquals(Set.of(1L), index.findBusy(List.of(1L), today.plusDays(6), today.plusDays(6)));
+    }
+
+    @Test
+    void removedItemsBecomeFree() {
+        index.removeAll(List.of(1L));
+
+        assertEquals(Set.of(), index.findBusy(List.of(1L), today, today.plusDays(30)));
+    }
+
+    private static Booking booking(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return Booking.builder()
+                .item(Item.builder().id(itemId).build())
+                .startDate(start)
+                .endDate(end)
+                .build();
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.item.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ItemImportReaderTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void ndjsonRowsKeepFileLineNumbers() {
+        List<ItemImportRow> rows = ItemImportReader.ndjson(body(String.join("\n",
+                "{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true,\"requestId\":7}",
+                "",
+                "{\"name\":\"Пила\",",
+                "{\"name\":\"Лестница\",\"description\":\"Стремянка\",\"available\":false}",
+                "")), objectMapper).toList();
+
+        assertEquals(3, rows.size());
+        assertEquals(1, rows.get(0).rowNumber());
+        assertEquals("Дрель", rows.get(0).item().getName());
+        assertEquals(7L, rows.get(0).item().getRequestId());
+        assertEquals(3, rows.get(1).rowNumber());
+        assertNull(rows.get(1).item());
+        assertNotNull(rows.get(1).error());
+        assertEquals(4, rows.get(2).rowNumber());
+        assertEquals(false, rows.get(2).item().getAvailable());
+        assertNull(rows.get(2).item().getRequestId());
+    }
+
+    @Test
+    void csvRowsAreNumberedFromHeader() throws IOException {
+        List<ItemImportRow> rows = ItemImportReader.csv(body("""
+                name,description,available,requestId
+                Дрель,"Ударная, 800 Вт",true,7
+                Пила,Ножовка,FALSE,
+                Лестница,Стремянка,maybe,
+                Палатка,Туристическая,true,seven
+                """)).toList();
+
+        assertEquals(4, rows.size());
+        assertEquals(2, rows.get(0).rowNumber());
+        assertEquals("Ударная, 800 Вт", rows.get(0).item().getDescription());
+        assertEquals(true, rows.get(0).item().getAvailable());
+        assertEquals(7L, rows.get(0).item().getRequestId());
+        assertEquals(3, rows.get(1).rowNumber());
+        assertEquals(false, rows.get(1).item().getAvailable());
+        assertNull(rows.get(1).item().getRequestId());
+        assertEquals(4, rows.get(2).rowNumber());
+        assertNotNull(rows.get(2).error());
+        assertEquals(5, rows.get(3).rowNumber());
+        assertNotNull(rows.get(3).error());
+    }
+
+    @Test
+    void csvWithoutRequestIdColumnIsAccepted() throws IOException {
+        List<ItemImportRow> rows = ItemImportReader.csv(body("""
+                name,description,available
+                Дрель,Ударная,true
+                """)).toList();
+
+        assertEquals(1, rows.size());
+        assertNull(rows.get(0).error());
+        assertNull(rows.get(0).item().getRequestId());
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.item.mapper;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.comment.CommentDto;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingRefDto;
+import ru.practicum.shareit.item.dto.NormalizedItemsDto;
+import ru.practicum.shareit.user.dto.CreateUserDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Нормализованная форма вещей владельца: последнее и следующее бронирование заменяются ссылками,
+ * бронирования и арендаторы передаются один раз, отсутствующее бронирование остаётся null.
+ */
+class ItemMapperTest {
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 10, 0);
+
+    private final CreateUserDto ivan = new CreateUserDto(10L, "Иван", "ivan@mail.ru");
+    private final CreateUserDto petr = new CreateUserDto(11L, "Пётр", "petr@mail.ru");
+
+    @Test
+    void bookingsAndBookersAreListedOnce() {
+        CreateItemDto drill = new CreateItemDto(1L, "Дрель", "Ударная", true, null);
+        BookingDto past = booking(100L, drill, ivan, START.minusDays(2));
+        BookingDto next = booking(101L, drill, ivan, START.plusDays(2));
+        List<CommentDto> comments = List.of(new CommentDto());
+        List<ItemWithBookingDto> items = List.of(
+                new ItemWithBookingDto(1L, "Дрель", "Ударная", true, past, next, 1L, comments),
+                new ItemWithBookingDto(2L, "Пила", "Цепная", false, null, booking(102L, drill, petr, START), 0L,
+                        List.of()));
+
+        NormalizedItemsDto normalized = ItemMapper.toNormalizedItems(items);
+
+        ItemWithBookingRefDto first = normalized.getItems().get(0);
+        assertEquals(1L, first.getId());
+        assertEquals("Дрель", first.getName());
+        assertEquals(100L, first.getLastBookingId());
+        assertEquals(101L, first.getNextBookingId());
+        assertEquals(1L, first.getCommentCount());
+        assertEquals(comments, first.getComments());
+        ItemWithBookingRefDto second = normalized.getItems().get(1);
+        assertNull(second.getLastBookingId());
+        assertEquals(102L, second.getNextBookingId());
+        assertEquals(false, second.getAvailable());
+        assertEquals(List.of(100L, 101L, 102L), List.copyOf(normalized.getBookings().keySet()));
+        assertEquals(10L, normalized.getBookings().get(101L).getBookerId());
+        assertEquals(START.plusDays(2), normalized.getBookings().get(101L).getStart());
+        assertEquals(List.of(10L, 11L), List.copyOf(normalized.getUsers().keySet()));
+        assertEquals(petr, normalized.getUsers().get(11L));
+    }
+
+    private static BookingDto booking(Long id, CreateItemDto item, CreateUserDto booker, LocalDateTime start) {
+        return BookingDto.builder()
+                .id(id)
+                .start(start)
+                .end(start.plusHours(1))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build();
+    }
+}
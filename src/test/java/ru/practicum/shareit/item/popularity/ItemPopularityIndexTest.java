@@ -0,0 +1,86 @@
+package ru.practicum.shareit.item.popularity;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.event.BookingStatusChangedEvent;
+import ru.practicum.shareit.event.CommentAddedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.UserFixtures;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Два экземпляра приложения с общей БД: события обрабатывает один из них, поэтому контрольные
+ * точки складывают приращения, а не перезаписывают друг друга, и после точки каждый экземпляр
+ * видит общую оценку.
+ */
+@SpringBootTest
+class ItemPopularityIndexTest {
+    private static final double EPSILON = 1e-3;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    void checkpointsOfTwoInstancesAreAdditive() {
+        Long itemId = saveItem();
+        ItemPopularityIndex first = newInstance();
+        ItemPopularityIndex second = newInstance();
+        first.onBookingStatusChanged(approved(itemId));
+        second.onBookingStatusChanged(approved(itemId));
+        second.onCommentAdded(new CommentAddedEvent(1L, itemId, 1L, 1L));
+
+        first.checkpoint();
+        second.checkpoint();
+
+        assertEquals(2.5, jdbcTemplate.queryForObject(
+                "SELECT score FROM item_popularity WHERE item_id = ?", Double.class, itemId), EPSILON);
+        assertEquals(2.5, second.getScore(itemId), EPSILON);
+        assertEquals(1.0, first.getScore(itemId), EPSILON);
+
+        first.onBookingStatusChanged(approved(itemId));
+        first.checkpoint();
+
+        assertEquals(3.5, first.getScore(itemId), EPSILON);
+        assertEquals(3.5, jdbcTemplate.queryForObject(
+                "SELECT score FROM item_popularity WHERE item_id = ?", Double.class, itemId), EPSILON);
+    }
+
+    private ItemPopularityIndex newInstance() {
+        ItemPopularityIndex index = new ItemPopularityIndex(jdbcTemplate, transactionTemplate, Duration.ofDays(7));
+        index.warmUp();
+        return index;
+    }
+
+    private Long saveItem() {
+        User owner = userRepository.save(UserFixtures.user("owner"));
+        return itemRepository.save(Item.builder()
+                .name("popular")
+                .description("checkpoint")
+                .available(true)
+                .owner(owner)
+                .build()).getId();
+    }
+
+    private static BookingStatusChangedEvent approved(Long itemId) {
+        return new BookingStatusChangedEvent(1L, itemId, 1L, 1L, BookingStatus.APPROVED);
+    }
+}
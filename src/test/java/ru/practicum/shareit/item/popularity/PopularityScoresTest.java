@@ -0,0 +1,99 @@
+package ru.practicum.shareit.item.popularity;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PopularityScoresTest {
+    private static final Duration HALF_LIFE = Duration.ofDays(7);
+    private static final double EPSILON = 1e-9;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000L);
+
+    @Test
+    void scoreHalvesEveryHalfLife() {
+        PopularityScores scores = new PopularityScores(HALF_LIFE, clock::get);
+        scores.add(1L, 4.0);
+
+        clock.addAndGet(HALF_LIFE.toMillis());
+        assertEquals(2.0, scores.score(1L), EPSILON);
+        scores.add(1L, 1.0);
+
+        clock.addAndGet(HALF_LIFE.toMillis());
+        assertEquals(1.5, scores.score(1L), EPSILON);
+        assertEquals(0.0, scores.score(2L));
+    }
+
+    @Test
+    void scoresSurviveRescaleAfterLongIdlePeriod() {
+        PopularityScores scores = new PopularityScores(HALF_LIFE, clock::get);
+        scores.add(1L, 1.0);
+        clock.addAndGet(HALF_LIFE.toMillis() * 200);
+        scores.add(2L, 3.0);
+
+        assertEquals(3.0, scores.score(2L), EPSILON);
+        assertEquals(0.0, scores.score(1L), EPSILON);
+        assertEquals(List.of(2L, 1L), scores.top(5, itemId -> itemId));
+    }
+
+    @Test
+    void checkpointedScoreIsDecayedToCurrentTime() {
+        PopularityScores scores = new PopularityScores(HALF_LIFE, clock::get);
+        scores.put(1L, 8.0, clock.get() - HALF_LIFE.toMillis());
+
+        assertEquals(4.0, scores.score(1L), EPSILON);
+    }
+
+    @Test
+    void topMatchesFullSortOfFilteredItems() {
+        PopularityScores scores = new PopularityScores(HALF_LIFE, clock::get);
+        Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            scores.add(1 + random.nextInt(1000), random.nextInt(5));
+            clock.addAndGet(random.nextInt(60_000));
+        }
+
+        List<Long> expected = LongStream.rangeClosed(1, 1000)
+                .filter(itemId -> itemId % 3 != 0)
+                .boxed()
+                .sorted((left, right) -> {
+                    int byScore = Double.compare(scores.score(right), scores.score(left));
+                    return byScore != 0 ? byScore : Long.compare(left, right);
+                })
+                .limit(20)
+                .toList();
+        assertEquals(expected, scores.top(20, itemId -> itemId % 3 != 0 ? itemId : null));
+    }
+
+    @Test
+    void removedItemsKeepOtherScoresReachable() {
+        PopularityScores scores = new PopularityScores(HALF_LIFE, clock::get);
+        Map<Long, Double> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            long itemId = 1 + random.nextInt(500);
+            if (random.nextInt(3) == 0) {
+                scores.remove(itemId);
+                expected.remove(itemId);
+            } else {
+                scores.add(itemId, 1.0);
+                expected.merge(itemId, 1.0, Double::sum);
+            }
+        }
+
+        assertEquals(expected.size(), scores.size());
+        for (long itemId = 1; itemId <= 500; itemId++) {
+            assertEquals(expected.getOrDefault(itemId, 0.0), scores.score(itemId), EPSILON);
+        }
+        List<Long> top = scores.top(expected.size() + 1, itemId -> itemId);
+        assertEquals(expected.size(), top.size());
+    }
+}
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.bulk.ItemImportRow;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemAnswer;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.UserFixtures;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Импорт сохраняет ссылку на запрос и отклоняет несуществующие запросы, а ошибка
+ * базы в одной строке не мешает сохранить остальные строки той же порции.
+ */
+@SpringBootTest
+class ItemServiceImplImportTest {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void importedItemsAnswerExistingRequests() {
+        User owner = saveUser();
+        ItemRequest request = itemRequestRepository.save(ItemRequest.builder()
+                .description("нужна дрель")
+                .requester(saveUser())
+                .dateCreated(LocalDateTime.now())
+                .build());
+
+        ItemImportResultDto result = itemService.importItems(owner.getId(), Stream.of(
+                row(1, item("Дрель", request.getId())),
+                row(2, item("Пила", Long.MAX_VALUE)),
+                row(3, item("Лестница", null))));
+
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(2, result.getErrors().getFirst().getRow());
+        List<ItemAnswer> answers = itemRepository.findAnswersByRequestIdIn(List.of(request.getId()));
+        assertEquals(List.of("Дрель"), answers.stream().map(ItemAnswer::name).toList());
+    }
+
+    @Test
+    void databaseErrorFailsOnlyOffendingRow() {
+        User owner = saveUser();
+
+        ItemImportResultDto result = itemService.importItems(owner.getId(), Stream.of(
+                row(1, item("Дрель", null)),
+                row(2, item("x".repeat(1000), null)),
+                row(3, item("Лестница", null))));
+
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(List.of(2L), result.getErrors().stream().map(ItemImportErrorDto::getRow).toList());
+        assertTrue(itemRepository.findAllByOwnerId(owner.getId()).stream()
+                .allMatch(item -> item.getName().length() < 255));
+        assertEquals(2, itemRepository.findAllByOwnerId(owner.getId()).size());
+    }
+
+    @Test
+    void chunksAfterRecoveredChunkAreSaved() {
+        User owner = saveUser();
+
+        ItemImportResultDto result = itemService.importItems(owner.getId(), LongStream.rangeClosed(1, 1500)
+                .mapToObj(rowNumber -> row(rowNumber, item(rowNumber == 10 ? "x".repeat(1000) : "Вещь " + rowNumber,
+                        null))));
+
+        assertEquals(1499, result.getImported());
+        assertEquals(List.of(10L), result.getErrors().stream().map(ItemImportErrorDto::getRow).toList());
+        assertEquals(1499, itemRepository.findAllByOwnerId(owner.getId()).size());
+    }
+
+    private static ItemImportRow row(long rowNumber, CreateItemDto item) {
+        return new ItemImportRow(rowNumber, item, null);
+    }
+
+    private static CreateItemDto item(String name, Long requestId) {
+        return CreateItemDto.builder()
+                .name(name)
+                .description("импорт")
+                .available(true)
+                .requestId(requestId)
+                .build();
+    }
+
+    private User saveUser() {
+        return userRepository.save(UserFixtures.user("user"));
+    }
+}
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.owner.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.owner.dto.ItemUtilizationDto;
+import ru.practicum.shareit.owner.dto.OwnerDashboardDto;
+import ru.practicum.shareit.user.UserFixtures;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Загрузка вещи за период: подтверждённые бронирования обрезаются границами периода,
+ * касание границы и неподтверждённые бронирования не учитываются. Ближайшие и ожидающие
+ * бронирования ограничены десятью каждого вида и идут по возрастанию начала.
+ */
+@SpringBootTest
+@Transactional
+class OwnerDashboardServiceImplTest {
+    private static final double SECONDS_PER_HOUR = 3600;
+
+    @Autowired
+    private OwnerDashboardService ownerDashboardService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private LocalDate from;
+    private LocalDate to;
+
+    @BeforeEach
+    void setUp() {
+        owner = saveUser();
+        booker = saveUser();
+        item = Item.builder()
+                .name("drill")
+                .description("utilization")
+                .available(true)
+                .owner(owner)
+                .build();
+        entityManager.persist(item);
+        from = LocalDate.now().plusDays(100);
+        to = from.plusDays(1);
+    }
+
+    @Test
+    void bookingsAreClippedToRange() {
+        LocalDateTime rangeStart = from.atStartOfDay();
+        LocalDateTime rangeEnd = to.plusDays(1).atStartOfDay();
+        saveBooking(rangeStart.plusHours(6), rangeStart.plusHours(30), BookingStatus.APPROVED);
+        saveBooking(rangeStart.minusHours(12), rangeStart.plusHours(2), BookingStatus.APPROVED);
+        saveBooking(rangeEnd.minusHours(4), rangeEnd.plusHours(20), BookingStatus.APPROVED);
+        saveBooking(rangeStart.minusDays(3), rangeStart, BookingStatus.APPROVED);
+        saveBooking(rangeEnd, rangeEnd.plusDays(1), BookingStatus.APPROVED);
+        saveBooking(rangeStart.plusHours(1), rangeStart.plusHours(5), BookingStatus.WAITING);
+
+        ItemUtilizationDto utilization = dashboardItem();
+
+        assertEquals(6, utilization.getBookingCount());
+        assertEquals((24 + 2 + 4) * SECONDS_PER_HOUR / (48 * SECONDS_PER_HOUR), utilization.getUtilization(), 1e-9);
+    }
+
+    @Test
+    void bookingCoveringWholeRangeGivesFullUtilization() {
+        saveBooking(from.atStartOfDay().minusDays(5), to.plusDays(5).atStartOfDay(), BookingStatus.APPROVED);
+        saveBooking(from.atStartOfDay(), to.plusDays(1).atStartOfDay(), BookingStatus.REJECTED);
+
+        assertEquals(1.0, dashboardItem().getUtilization(), 1e-9);
+    }
+
+    @Test
+    void itemWithoutBookingsHasZeroUtilization() {
+        ItemUtilizationDto utilization = dashboardItem();
+
+        assertEquals(0, utilization.getBookingCount());
+        assertEquals(0.0, utilization.getUtilization(), 1e-9);
+    }
+
+    @Test
+    void soonestListsAreLimitedPerKindAndOrderedByStart() {
+        LocalDateTime now = LocalDateTime.now();
+        IntStream.range(0, 12).forEach(i ->
+                saveBooking(now.plusDays(12 - i), now.plusDays(13 - i), BookingStatus.APPROVED));
+        IntStream.range(0, 11).forEach(i ->
+                saveBooking(now.plusDays(20 + i), now.plusDays(21 + i), BookingStatus.WAITING));
+        saveBooking(now.minusDays(3), now.minusDays(2), BookingStatus.WAITING);
+        saveBooking(now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED);
+        saveBooking(now.plusDays(1), now.plusDays(2), BookingStatus.REJECTED);
+        entityManager.flush();
+
+        OwnerDashboardDto dashboard = ownerDashboardService.getDashboard(owner.getId(), from, to);
+
+        assertEquals(IntStream.rangeClosed(1, 10).mapToObj(now::plusDays).toList(),
+                starts(dashboard.getUpcomingBookings()));
+        assertEquals(IntStream.range(20, 30).mapToObj(now::plusDays).toList(),
+                starts(dashboard.getPendingApprovals()));
+    }
+
+    private static List<LocalDateTime> starts(List<BookingDto> bookings) {
+        return bookings.stream().map(BookingDto::getStart).toList();
+    }
+
+    private ItemUtilizationDto dashboardItem() {
+        entityManager.flush();
+        OwnerDashboardDto dashboard = ownerDashboardService.getDashboard(owner.getId(), from, to);
+        assertEquals(1, dashboard.getItems().size());
+        return dashboard.getItems().getFirst();
+    }
+
+    private void saveBooking(LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        entityManager.persist(Booking.builder()
+                .startDate(start)
+                .endDate(end)
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .build());
+    }
+
+    private User saveUser() {
+        User user = UserFixtures.user("user");
+        entityManager.persist(user);
+        return user;
+    }
+}
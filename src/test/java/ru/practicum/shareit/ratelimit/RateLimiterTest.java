@@ -0,0 +1,84 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong(SECOND);
+
+    @Test
+    void bucketAllowsBurstThenRefillsAtConfiguredRate() {
+        UserRateLimiter limiter = new UserRateLimiter(3, 2, clock::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire(1L));
+        }
+        long waitNanos = limiter.tryAcquire(1L);
+        assertEquals(SECOND / 2, waitNanos);
+        assertEquals(0, limiter.tryAcquire(2L), "Лимит другого пользователя не расходуется");
+
+        clock.addAndGet(waitNanos);
+        assertEquals(0, limiter.tryAcquire(1L));
+        assertTrue(limiter.tryAcquire(1L) > 0);
+    }
+
+    @Test
+    void onlyFullBucketsAreEvicted() {
+        UserRateLimiter limiter = new UserRateLimiter(2, 1, clock::get);
+        limiter.tryAcquire(1L);
+        limiter.tryAcquire(2L);
+        limiter.tryAcquire(2L);
+
+        clock.addAndGet(SECOND);
+        assertEquals(1, limiter.evictIdle());
+        assertEquals(1, limiter.size());
+
+        clock.addAndGet(SECOND);
+        assertEquals(1, limiter.evictIdle());
+        assertEquals(0, limiter.size());
+    }
+
+    @Test
+    void concurrencyLimitGrowsWhenFastAndBacksOffWhenSlow() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 2, 10, SECOND, 0.5);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+
+        limiter.release(0, SECOND / 10);
+        assertEquals(5, limiter.getLimit());
+        assertEquals(3, limiter.getInFlight());
+
+        limiter.release(0, 2 * SECOND);
+        assertEquals(2, limiter.getLimit());
+        assertFalse(limiter.tryAcquire(), "Выполняется 2 запроса при лимите 2");
+    }
+
+    @Test
+    void concurrencyLimitBacksOffOncePerResponseTime() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 10, SECOND, 0.5);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+
+        limiter.release(0, 2 * SECOND);
+        limiter.release(0, 3 * SECOND);
+        assertEquals(5, limiter.getLimit(), "Запросы, допущенные до уменьшения, лимит больше не снижают");
+
+        limiter.release(2 * SECOND, 4 * SECOND);
+        assertEquals(2, limiter.getLimit());
+
+        limiter.releaseUnsampled();
+        assertEquals(2, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.request.service;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserFixtures;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class ItemRequestServiceImplQueryCountTest {
+    private static final int PAGE_SIZE = 1000;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private User requester;
+    private User other;
+    private final Set<Long> otherRequestIds = new HashSet<>();
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        requester = saveUser();
+        other = saveUser();
+    }
+
+    @Test
+    void userRequestsStatementCountDoesNotDependOnRequestCount() {
+        addRequests(requester, 1);
+        long statementsForFewRows = countStatements(() -> itemRequestService.getUserRequests(requester.getId()));
+
+        addRequests(requester, 20);
+        long statementsForManyRows = countStatements(() -> itemRequestService.getUserRequests(requester.getId()));
+
+        assertEquals(statementsForFewRows, statementsForManyRows);
+    }
+
+    @Test
+    void otherUsersRequestsStatementCountDoesNotDependOnPageSize() {
+        addRequests(other, 1);
+        long statementsForFewRows = countStatements(() ->
+                itemRequestService.getOtherUsersRequests(requester.getId(), 0, PAGE_SIZE));
+
+        addRequests(other, 20);
+        long statementsForManyRows = countStatements(() ->
+                itemRequestService.getOtherUsersRequests(requester.getId(), 0, PAGE_SIZE));
+
+        assertEquals(statementsForFewRows, statementsForManyRows);
+        List<ItemRequestDto> otherRequests = itemRequestService.getOtherUsersRequests(requester.getId(), 0, PAGE_SIZE)
+                .stream()
+                .filter(request -> otherRequestIds.contains(request.getId()))
+                .toList();
+        assertEquals(21, otherRequests.size());
+        assertTrue(otherRequests.stream().allMatch(request -> request.getItems().size() == 2));
+    }
+
+    private long countStatements(Supplier<?> call) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        call.get();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void addRequests(User author, int count) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < count; i++) {
+            ItemRequest request = ItemRequest.builder()
+                    .description("request " + i)
+                    .requester(author)
+                    .dateCreated(now)
+                    .build();
+            entityManager.persist(request);
+            if (author == other) {
+                otherRequestIds.add(request.getId());
+            }
+            for (int j = 0; j < 2; j++) {
+                entityManager.persist(Item.builder()
+                        .name("answer " + j)
+                        .description("description " + j)
+                        .available(true)
+                        .owner(saveUser())
+                        .request(request)
+                        .build());
+            }
+        }
+    }
+
+    private User saveUser() {
+        User user = UserFixtures.user("user");
+        entityManager.persist(user);
+        return user;
+    }
+}
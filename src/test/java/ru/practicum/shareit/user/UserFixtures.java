@@ -0,0 +1,34 @@
+package ru.practicum.shareit.user;
+
+import ru.practicum.shareit.user.dto.CreateUserDto;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.UUID;
+
+/**
+ * Пользователи для тестов. БД у тестов общая, поэтому email каждого пользователя случайный
+ * и не нарушает уникальность с данными соседних тестов.
+ */
+public final class UserFixtures {
+
+    private UserFixtures() {
+    }
+
+    public static User user(String name) {
+        return User.builder()
+                .name(name)
+                .email(randomEmail())
+                .build();
+    }
+
+    public static CreateUserDto userDto(String name) {
+        return CreateUserDto.builder()
+                .name(name)
+                .email(randomEmail())
+                .build();
+    }
+
+    private static String randomEmail() {
+        return UUID.randomUUID() + "@mail.ru";
+    }
+}
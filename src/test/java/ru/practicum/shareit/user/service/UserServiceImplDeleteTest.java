@@ -0,0 +1,105 @@
+package ru.practicum.shareit.user.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.event.BookingStatusChangedEvent;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.popularity.ItemPopularityIndex;
+import ru.practicum.shareit.item.search.ItemSort;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.UserFixtures;
+import ru.practicum.shareit.user.dto.CreateUserDto;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Удаление пользователя каскадом удаляет его вещи; индексы в памяти должны забыть их после коммита,
+ * а контрольная точка популярности - не ссылаться на удалённые вещи.
+ */
+@SpringBootTest
+class UserServiceImplDeleteTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemPopularityIndex itemPopularityIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deletedOwnersItemsDisappearFromSearch() {
+        String word = "w" + UUID.randomUUID().toString().replace("-", "");
+        CreateUserDto owner = saveUser();
+        CreateItemDto item = itemService.addItem(owner.getId(), item(word));
+        assertEquals(1, itemService.getAvailableItemsByText(word, null, null, ItemSort.RELEVANCE).size());
+
+        userService.deleteUser(owner.getId());
+
+        assertTrue(itemService.getAvailableItemsByText(word, null, null, ItemSort.RELEVANCE).isEmpty(),
+                "Вещь " + item.getId() + " удалённого владельца осталась в поиске");
+    }
+
+    @Test
+    void deletedOwnersItemsDisappearFromTrending() {
+        CreateUserDto owner = saveUser();
+        CreateItemDto item = itemService.addItem(owner.getId(), item("trending"));
+        recordApproval(item.getId());
+        assertTrue(isTrending(item.getId()));
+
+        userService.deleteUser(owner.getId());
+
+        assertFalse(isTrending(item.getId()));
+        assertEquals(0.0, itemPopularityIndex.getScore(item.getId()));
+    }
+
+    @Test
+    void checkpointSkipsItemsDeletedAfterScoresWereTaken() {
+        CreateUserDto owner = saveUser();
+        CreateItemDto kept = itemService.addItem(owner.getId(), item("kept"));
+        CreateItemDto deleted = itemService.addItem(owner.getId(), item("deleted"));
+        recordApproval(kept.getId());
+        recordApproval(deleted.getId());
+        jdbcTemplate.update("DELETE FROM items WHERE id = ?", deleted.getId());
+
+        itemPopularityIndex.checkpoint();
+
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM item_popularity WHERE item_id = ?", Integer.class, kept.getId()));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM item_popularity WHERE item_id = ?", Integer.class, deleted.getId()));
+    }
+
+    private void recordApproval(Long itemId) {
+        itemPopularityIndex.onBookingStatusChanged(new BookingStatusChangedEvent(1L, itemId, 1L, 1L,
+                BookingStatus.APPROVED));
+    }
+
+    private boolean isTrending(Long itemId) {
+        return itemService.getTrendingItems(100_000).stream()
+                .anyMatch(item -> item.getId().equals(itemId));
+    }
+
+    private CreateUserDto saveUser() {
+        return userService.addUser(UserFixtures.userDto("owner"));
+    }
+
+    private static CreateItemDto item(String word) {
+        return CreateItemDto.builder()
+                .name(word)
+                .description("deleted with owner")
+                .available(true)
+                .build();
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.user.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.exceptions.InternalServerException;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.user.UserFixtures;
+import ru.practicum.shareit.user.dto.CreateUserDto;
+import ru.practicum.shareit.user.dto.UpdateUserDto;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * В кэше лежат неизменяемые снимки пользователей: неудачное обновление не оставляет в нём
+ * наполовину применённых изменений, а обновление и удаление вытесняют запись.
+ */
+@SpringBootTest
+class UserServiceImplUpdateTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void failedUpdateLeavesCachedUserIntact() {
+        CreateUserDto user = saveUser("before");
+        CreateUserDto other = saveUser("other");
+        userService.getUserById(user.getId());
+
+        assertThrows(InternalServerException.class, () -> userService.updateUser(user.getId(), UpdateUserDto.builder()
+                .name("after")
+                .email(other.getEmail())
+                .build()));
+
+        assertEquals("before", userService.getUserById(user.getId()).getName());
+    }
+
+    @Test
+    void successfulUpdateIsVisibleThroughCache() {
+        CreateUserDto user = saveUser("before");
+        userService.getUserById(user.getId());
+
+        userService.updateUser(user.getId(), UpdateUserDto.builder().name("after").build());
+
+        assertEquals("after", userService.getUserById(user.getId()).getName());
+    }
+
+    @Test
+    void deletedUserIsEvictedFromCache() {
+        CreateUserDto user = saveUser("deleted");
+        userService.getUserById(user.getId());
+
+        userService.deleteUser(user.getId());
+
+        assertThrows(NotFoundException.class, () -> userService.getUserById(user.getId()));
+    }
+
+    private CreateUserDto saveUser(String name) {
+        return userService.addUser(UserFixtures.userDto(name));
+    }
+}